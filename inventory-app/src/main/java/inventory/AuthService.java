@@ -0,0 +1,125 @@
+package inventory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks passwords against a {@link CredentialStore}. Verification is slow on purpose, so two things
+ * keep it cheap in practice:
+ * <ul>
+ * <li>a login cache: after a successful login the user's password is remembered for
+ *     {@code inventory.loginCacheMinutes} (default 15) as an HMAC under a per-process random key, so
+ *     signing in again after Logout is checked in microseconds instead of a full PBKDF2 run;</li>
+ * <li>per-user rate limiting: after {@value #FREE_FAILURES} wrong passwords in a row the user is locked
+ *     out for 1s, doubling with each further failure up to 5 minutes. Attempts during a lockout are
+ *     refused before any hashing, so guessing cannot burn CPU.</li>
+ * </ul>
+ * Thread-safe; call it off the EDT.
+ */
+class AuthService {
+    static final int FREE_FAILURES = 3;
+    private static final int MAX_TRACKED_USERS = 10_000;
+    private static final long MAX_LOCKOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long CACHE_MILLIS = TimeUnit.MINUTES.toMillis(Long.getLong("inventory.loginCacheMinutes", 15));
+    private static final PasswordHash DUMMY = PasswordHash.create("not-a-password".toCharArray());
+
+    private static final class Attempts {
+        int failures;
+        long lockedUntil;
+    }
+    private static final class CachedLogin {
+        final byte[] mac;
+        final long expiresAt;
+        CachedLogin(byte[] mac, long expiresAt) { this.mac = mac; this.expiresAt = expiresAt; }
+    }
+
+    private final CredentialStore store;
+    private final Map<String, Attempts> attempts = new ConcurrentHashMap<>();
+    private final Map<String, CachedLogin> cache = new ConcurrentHashMap<>();
+    private final SecretKeySpec cacheKey;
+
+    public AuthService(CredentialStore store) {
+        this.store = store;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.cacheKey = new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    /** The in-memory demo users. */
+    public AuthService() {
+        this(new MemoryCredentialStore());
+        try {
+            seedDefaults(store);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void seedDefaults(CredentialStore store) throws IOException {
+        store.put("admin", PasswordHash.create("admin123".toCharArray()));
+        store.put("manager", PasswordHash.create("manager@123".toCharArray()));
+        store.put("clerk", PasswordHash.create("clerk@123".toCharArray()));
+    }
+
+    public LoginResult authenticate(String username, char[] password) {
+        if (username == null || password == null) return LoginResult.invalid();
+        String user = username.trim();
+        long now = System.currentTimeMillis();
+        if (attempts.size() > MAX_TRACKED_USERS) attempts.values().removeIf(x -> x.lockedUntil < now);
+        Attempts a = attempts.computeIfAbsent(user, u -> new Attempts());
+        synchronized (a) {
+            if (now < a.lockedUntil) return LoginResult.locked(a.lockedUntil - now);
+        }
+        CachedLogin cached = cache.get(user);
+        if (cached != null && cached.expiresAt > now && MessageDigest.isEqual(cached.mac, mac(password))) {
+            return succeeded(user, a, password, now);
+        }
+        PasswordHash stored = store.find(user);
+        // unknown users still pay for one hash, so response time does not reveal which names exist
+        boolean ok = (stored != null ? stored : DUMMY).verify(password) && stored != null;
+        if (ok) return succeeded(user, a, password, now);
+        synchronized (a) {
+            if (++a.failures >= FREE_FAILURES) {
+                a.lockedUntil = now + Math.min(MAX_LOCKOUT_MILLIS, 1000L << Math.min(20, a.failures - FREE_FAILURES));
+            }
+        }
+        return LoginResult.invalid();
+    }
+
+    /** Stores a new hash for {@code username} and drops any cached login for it. */
+    public void setPassword(String username, char[] password) throws IOException {
+        String user = username.trim();
+        if (user.isEmpty() || user.contains(":") || user.chars().anyMatch(Character::isWhitespace)) {
+            throw new IllegalArgumentException("Usernames cannot be empty or contain ':' or spaces");
+        }
+        cache.remove(user);
+        store.put(user, PasswordHash.create(password));
+    }
+
+    private LoginResult succeeded(String user, Attempts a, char[] password, long now) {
+        attempts.remove(user, a);
+        cache.put(user, new CachedLogin(mac(password), now + CACHE_MILLIS));
+        return LoginResult.ok(user);
+    }
+
+    private byte[] mac(char[] password) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(cacheKey);
+            mac.update(StandardCharsets.UTF_8.encode(CharBuffer.wrap(password)));
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package inventory;
+
+import java.io.IOException;
+
+/** Where {@link AuthService} keeps password hashes, by username. */
+interface CredentialStore {
+    PasswordHash find(String username);
+    void put(String username, PasswordHash hash) throws IOException;
+}
@@ -0,0 +1,48 @@
+package inventory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Credentials in a text file of {@code username:hash} lines, read once and rewritten whole (via a temp
+ * file and an atomic rename) on every change. A missing file is created with the default demo users.
+ */
+final class FileCredentialStore implements CredentialStore {
+    private final Path file;
+    private final Map<String, PasswordHash> users = new TreeMap<>();
+
+    FileCredentialStore(Path file) throws IOException {
+        this.file = file;
+        if (!Files.exists(file)) {
+            AuthService.seedDefaults(this);
+            return;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            int colon = line.indexOf(':');
+            if (line.isBlank() || line.startsWith("#") || colon < 0) continue;
+            users.put(line.substring(0, colon), PasswordHash.parse(line.substring(colon + 1).trim()));
+        }
+    }
+
+    @Override public synchronized PasswordHash find(String username) { return users.get(username); }
+
+    @Override public synchronized void put(String username, PasswordHash hash) throws IOException {
+        users.put(username, hash);
+        StringBuilder sb = new StringBuilder("# username:pbkdf2-sha256$iterations$salt$hash\n");
+        users.forEach((u, h) -> sb.append(u).append(':').append(h.encode()).append('\n'));
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "users", ".tmp");
+        try {
+            Files.writeString(tmp, sb, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
@@ -0,0 +1,1234 @@
+package inventory;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.io.BufferedReader;
+import java.io.Console;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/* ========= LOGIN DIALOG ========= */
+class LoginDialog extends JDialog {
+    private boolean authenticated = false;
+    private String username;
+    private final JTextField userField = new JTextField(16);
+    private final JPasswordField passField = new JPasswordField(16);
+
+    public LoginDialog(Frame owner, AuthService auth) {
+        super(owner, "Login - Inventory Management", true);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+        JPanel content = new JPanel(new BorderLayout(10, 10));
+        content.setBorder(new EmptyBorder(16, 16, 16, 16));
+
+        JLabel title = new JLabel("Please sign in");
+        title.setFont(title.getFont().deriveFont(Font.BOLD, 16f));
+
+        JPanel form = new JPanel(new GridBagLayout());
+        GridBagConstraints g = new GridBagConstraints();
+        g.insets = new Insets(8, 8, 8, 8);
+        g.fill = GridBagConstraints.HORIZONTAL;
+
+        int r = 0;
+        g.gridx = 0; g.gridy = r; form.add(new JLabel("Username"), g);
+        g.gridx = 1; form.add(userField, g); r++;
+        g.gridx = 0; g.gridy = r; form.add(new JLabel("Password"), g);
+        g.gridx = 1; form.add(passField, g);
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton loginBtn = new JButton("Login");
+        JButton cancelBtn = new JButton("Cancel");
+        buttons.add(cancelBtn);
+        buttons.add(loginBtn);
+
+        // hashing takes a noticeable fraction of a second, so it runs off the EDT with the form disabled
+        loginBtn.addActionListener((ActionEvent e) -> {
+            String u = userField.getText().trim();
+            char[] p = passField.getPassword();
+            loginBtn.setEnabled(false);
+            title.setText("Signing in...");
+            new SwingWorker<LoginResult, Void>() {
+                @Override protected LoginResult doInBackground() {
+                    try {
+                        return auth.authenticate(u, p);
+                    } finally {
+                        Arrays.fill(p, '\0');
+                    }
+                }
+                @Override protected void done() {
+                    loginBtn.setEnabled(true);
+                    title.setText("Please sign in");
+                    LoginResult result;
+                    try {
+                        result = get();
+                    } catch (InterruptedException | ExecutionException ex) {
+                        result = LoginResult.invalid();
+                    }
+                    if (result.isOk()) {
+                        authenticated = true;
+                        username = result.username;
+                        dispose();
+                        return;
+                    }
+                    String msg = result.status == LoginResult.Status.LOCKED
+                            ? "Too many failed attempts. Try again in " + (result.retryAfterMillis + 999) / 1000 + " s."
+                            : "Invalid username or password.";
+                    JOptionPane.showMessageDialog(LoginDialog.this, msg, "Login Failed", JOptionPane.ERROR_MESSAGE);
+                    passField.setText("");
+                    passField.requestFocusInWindow();
+                }
+            }.execute();
+        });
+
+        cancelBtn.addActionListener(e -> {
+            authenticated = false;
+            dispose();
+        });
+
+        content.add(title, BorderLayout.NORTH);
+        content.add(form, BorderLayout.CENTER);
+        content.add(buttons, BorderLayout.SOUTH);
+
+        setContentPane(content);
+        pack();
+        setResizable(false);
+        setLocationRelativeTo(owner);
+        // Enter to submit
+        getRootPane().setDefaultButton(loginBtn);
+    }
+
+    public boolean isAuthenticated() { return authenticated; }
+    public String getUsername() { return username; }
+}
+
+/* ========= TABLE MODELS ========= */
+/** Row model over live {@link Product} references; cells are read on demand, never copied. */
+abstract class ProductRowsModel extends AbstractTableModel {
+    private final String[] columns;
+    private final List<Product> rows = new ArrayList<>();
+    private final Map<String, Integer> rowIndex = new HashMap<>();
+
+    protected ProductRowsModel(String... columns) { this.columns = columns; }
+
+    @Override public int getRowCount() { return rows.size(); }
+    @Override public int getColumnCount() { return columns.length; }
+    @Override public String getColumnName(int c) { return columns[c]; }
+    @Override public boolean isCellEditable(int r, int c) { return false; }
+    @Override public Object getValueAt(int r, int c) { return valueOf(rows.get(r), c); }
+    protected abstract Object valueOf(Product p, int column);
+
+    public Product getProductAt(int r) { return rows.get(r); }
+
+    public void setProducts(Collection<Product> products) {
+        rows.clear();
+        rowIndex.clear();
+        for (Product p : products) if (accepts(p)) {
+            rowIndex.put(p.getProductId(), rows.size());
+            rows.add(p);
+        }
+        fireTableDataChanged();
+    }
+    protected boolean accepts(Product p) { return true; }
+
+    /** Inserts, repaints or drops the row for {@code p} depending on whether it still belongs here. */
+    public void sync(Product p) {
+        Integer i = rowIndex.get(p.getProductId());
+        if (!accepts(p)) {
+            if (i != null) remove(p.getProductId());
+        } else if (i == null) {
+            rowIndex.put(p.getProductId(), rows.size());
+            rows.add(p);
+            fireTableRowsInserted(rows.size() - 1, rows.size() - 1);
+        } else {
+            rows.set(i, p);
+            fireTableRowsUpdated(i, i);
+        }
+    }
+
+    /** Swap-removes so deletes stay O(1); only the moved row and the tail are repainted. */
+    public void remove(String productId) {
+        Integer i = rowIndex.remove(productId);
+        if (i == null) return;
+        int last = rows.size() - 1;
+        Product moved = rows.remove(last);
+        if (i != last) {
+            rows.set(i, moved);
+            rowIndex.put(moved.getProductId(), i);
+            fireTableRowsUpdated(i, i);
+        }
+        fireTableRowsDeleted(last, last);
+    }
+}
+
+class ProductTableModel extends ProductRowsModel {
+    private String filter = "";
+
+    ProductTableModel() { super("ID","Name","Category","Price","Quantity","Min Stock","Status"); }
+
+    /** Restricts live inserts to products matching the search box; callers reload the rows themselves. */
+    public void setFilter(String prefix) { this.filter = prefix; }
+    public String getFilter() { return filter; }
+    @Override protected boolean accepts(Product p) { return filter.isEmpty() || ProductIndex.matches(p, filter); }
+    @Override protected Object valueOf(Product p, int c) {
+        switch (c) {
+            case 0: return p.getProductId();
+            case 1: return p.getName();
+            case 2: return p.getCategory();
+            case 3: return p.getPrice();
+            case 4: return p.getQuantity();
+            case 5: return p.getMinStockLevel();
+            default: return p.isLowStock() ? "LOW" : "OK";
+        }
+    }
+}
+
+class LowStockTableModel extends ProductRowsModel {
+    private final LowStockAlerts alerts;
+
+    LowStockTableModel(LowStockAlerts alerts) {
+        super("ID","Name","Qty","Min","Category","Reorder");
+        this.alerts = alerts;
+    }
+    @Override protected boolean accepts(Product p) { return p.isLowStock(); }
+    @Override protected Object valueOf(Product p, int c) {
+        switch (c) {
+            case 0: return p.getProductId();
+            case 1: return p.getName();
+            case 2: return p.getQuantity();
+            case 3: return p.getMinStockLevel();
+            case 4: return p.getCategory();
+            default:
+                LowStockAlert a = alerts.getActiveAlert(p.getProductId());
+                return a == null ? "" : a.getSuggestedReorder();
+        }
+    }
+}
+
+/** Newest-first view over a list of transactions; timestamps are formatted only when a cell is painted. */
+class TransactionTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"Txn ID","Product ID","Type","Qty","Reason","Timestamp"};
+    private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private List<Transaction> txns = Collections.emptyList();
+
+    public void setTransactions(List<Transaction> txns) {
+        this.txns = txns;
+        fireTableDataChanged();
+    }
+    @Override public int getRowCount() { return txns.size(); }
+    @Override public int getColumnCount() { return COLUMNS.length; }
+    @Override public String getColumnName(int c) { return COLUMNS[c]; }
+    @Override public boolean isCellEditable(int r, int c) { return false; }
+    @Override public Object getValueAt(int r, int c) {
+        Transaction t = txns.get(txns.size() - 1 - r);
+        switch (c) {
+            case 0: return t.getTransactionId();
+            case 1: return t.getProductId();
+            case 2: return t.getType();
+            case 3: return t.getQuantity();
+            case 4: return t.getReason();
+            default: return t.getTimestamp().format(FMT);
+        }
+    }
+}
+
+/** Totals per location, as returned by {@link InventoryService#getLocationSummaries()}. */
+class LocationSummaryTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"Location","Products","Items","Value","Low Stock"};
+    private List<Map.Entry<String, InventoryTotals>> rows = Collections.emptyList();
+
+    public void setSummaries(Map<String, InventoryTotals> summaries) {
+        this.rows = new ArrayList<>(summaries.entrySet());
+        fireTableDataChanged();
+    }
+    @Override public int getRowCount() { return rows.size(); }
+    @Override public int getColumnCount() { return COLUMNS.length; }
+    @Override public String getColumnName(int c) { return COLUMNS[c]; }
+    @Override public boolean isCellEditable(int r, int c) { return false; }
+    @Override public Object getValueAt(int r, int c) {
+        Map.Entry<String, InventoryTotals> e = rows.get(r);
+        switch (c) {
+            case 0: return e.getKey();
+            case 1: return e.getValue().getProductCount();
+            case 2: return e.getValue().getTotalItems();
+            case 3: return e.getValue().getTotalValue();
+            default: return e.getValue().getLowStockCount();
+        }
+    }
+}
+
+/** Product rows at or below their location minimum. */
+class StockLevelTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"Location","Product ID","Qty","Min Stock"};
+    private List<StockLevel> rows = Collections.emptyList();
+
+    public void setLevels(List<StockLevel> rows) {
+        this.rows = rows;
+        fireTableDataChanged();
+    }
+    @Override public int getRowCount() { return rows.size(); }
+    @Override public int getColumnCount() { return COLUMNS.length; }
+    @Override public String getColumnName(int c) { return COLUMNS[c]; }
+    @Override public boolean isCellEditable(int r, int c) { return false; }
+    @Override public Object getValueAt(int r, int c) {
+        StockLevel l = rows.get(r);
+        switch (c) {
+            case 0: return l.getLocation();
+            case 1: return l.getProductId();
+            case 2: return l.getQuantity();
+            default: return l.getMinStockLevel();
+        }
+    }
+}
+
+/** One row per operation of a {@link Metrics} snapshot, latencies in microseconds. */
+class MetricsTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"Operation","Count","Mean","p50","p90","p99","p99.9","Max"};
+    private List<OperationSnapshot> rows = Collections.emptyList();
+
+    public void setSnapshots(List<OperationSnapshot> rows) {
+        this.rows = rows;
+        fireTableDataChanged();
+    }
+    @Override public int getRowCount() { return rows.size(); }
+    @Override public int getColumnCount() { return COLUMNS.length; }
+    @Override public String getColumnName(int c) { return COLUMNS[c]; }
+    @Override public boolean isCellEditable(int r, int c) { return false; }
+    @Override public Object getValueAt(int r, int c) {
+        OperationSnapshot s = rows.get(r);
+        switch (c) {
+            case 0: return s.getName();
+            case 1: return s.getCount();
+            case 2: return micros(s.getMean());
+            case 3: return micros(s.getP50());
+            case 4: return micros(s.getP90());
+            case 5: return micros(s.getP99());
+            case 6: return micros(s.getP999());
+            default: return micros(s.getMax());
+        }
+    }
+    private static String micros(double nanos) { return String.format("%.1f", nanos / 1e3); }
+}
+
+/**
+ * Shows a {@link ReportText} in a JList with a fixed cell size, so only the visible lines are ever
+ * measured or turned into Strings and a million-line report pages as quickly as a short one. Lines
+ * appear as they are rendered: the model grows on a 100 ms timer until the report completes.
+ */
+final class ReportViewer extends JPanel {
+    private final ReportLinesModel model = new ReportLinesModel();
+    private final JList<String> list = new JList<>(model);
+    private final JLabel info = new JLabel(" ");
+    private final javax.swing.Timer poll = new javax.swing.Timer(100, e -> sync());
+    private long started, elapsedMillis;
+
+    ReportViewer() {
+        super(new BorderLayout(0, 4));
+        list.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13));
+        list.setFixedCellHeight(list.getFontMetrics(list.getFont()).getHeight());
+        list.setFixedCellWidth(1);
+        JScrollPane scroll = new JScrollPane(list);
+        scroll.getViewport().addChangeListener(e -> updateInfo());
+        add(scroll, BorderLayout.CENTER);
+        add(info, BorderLayout.SOUTH);
+    }
+
+    /** Starts showing {@code text}, cancelling the report shown before it if it is still rendering. */
+    void show(ReportText text) {
+        if (model.text != null) model.text.cancel();
+        model.reset(text);
+        list.setFixedCellWidth(1);
+        started = System.nanoTime();
+        poll.start();
+    }
+
+    void stop() {
+        poll.stop();
+        if (model.text != null) model.text.cancel();
+    }
+
+    /** Stops any rendering report and empties the viewer. */
+    void clear() {
+        stop();
+        model.reset(null);
+        info.setText(" ");
+    }
+
+    private void sync() {
+        ReportText text = model.text;
+        boolean done = text.isComplete() || text.isCancelled();
+        model.grow(text.lineCount());
+        int width = list.getFontMetrics(list.getFont()).charWidth('M') * text.maxLineLength() + 8;
+        if (width > list.getFixedCellWidth()) list.setFixedCellWidth(width);
+        if (done) {
+            poll.stop();
+            elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        }
+        updateInfo();
+    }
+
+    private void updateInfo() {
+        ReportText text = model.text;
+        if (text == null) return;
+        int n = model.getSize();
+        String range = n == 0 ? "No lines" : "Lines " + (list.getFirstVisibleIndex() + 1) + "-" + (list.getLastVisibleIndex() + 1) + " of " + n;
+        info.setText(poll.isRunning() ? range + " (rendering...)"
+                : range + ", rendered in " + elapsedMillis + " ms");
+    }
+
+    private static final class ReportLinesModel extends AbstractListModel<String> {
+        ReportText text;
+        private int size;
+
+        void reset(ReportText text) {
+            int old = size;
+            this.text = text;
+            size = 0;
+            if (old > 0) fireIntervalRemoved(this, 0, old - 1);
+        }
+        void grow(int n) {
+            if (n <= size) return;
+            int old = size;
+            size = n;
+            fireIntervalAdded(this, old, n - 1);
+        }
+        @Override public int getSize() { return size; }
+        @Override public String getElementAt(int i) { return text.line(i); }
+    }
+}
+
+class PriceRenderer extends DefaultTableCellRenderer {
+    @Override protected void setValue(Object value) {
+        setText(value instanceof Double ? String.format("%.2f", (Double) value) : String.valueOf(value));
+    }
+}
+
+/**
+ * Merges change notifications from any thread into at most one table update per frame: IDs marked
+ * dirty before the frame timer fires are handed to the EDT together.
+ */
+final class RefreshCoalescer {
+    static final int FRAME_MILLIS = 16;
+
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Consumer<Set<String>> onChanged;
+    private final javax.swing.Timer timer;
+
+    /** {@code onChanged} runs on the EDT with every ID marked since the previous frame. */
+    RefreshCoalescer(Consumer<Set<String>> onChanged) {
+        this.onChanged = onChanged;
+        this.timer = new javax.swing.Timer(FRAME_MILLIS, e -> flush());
+        this.timer.setRepeats(false);
+    }
+
+    void productsChanged(Collection<String> ids) {
+        dirty.addAll(ids);
+        if (scheduled.compareAndSet(false, true)) SwingUtilities.invokeLater(timer::start);
+    }
+
+    private void flush() {
+        scheduled.set(false);
+        Set<String> ids = new HashSet<>();
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        if (!ids.isEmpty()) onChanged.accept(ids);
+    }
+}
+
+/* ========= MAIN UI ========= */
+public class InventorySwingApp extends JFrame {
+    private static final int SEARCH_LIMIT = 1000;
+    /** Above this many changed rows in one frame, reloading a table is cheaper than syncing each row. */
+    private static final int MAX_ROW_SYNCS = 256;
+
+    /*
+     * Service calls never run on the EDT. Writes go through one thread so user actions apply in the order
+     * they were made; reads (table loads, reports) use a small pool so they are not queued behind a slow
+     * commit. Plain daemon executors, as Java 17 has no virtual threads.
+     */
+    private static final ExecutorService WRITES = Executors.newSingleThreadExecutor(r -> worker(r, "inventory-ui-write"));
+    private static final ExecutorService READS = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2), r -> worker(r, "inventory-ui-read"));
+
+    private final InventoryService service = Bootstrap.service();
+    private final RefreshCoalescer refresher = new RefreshCoalescer(this::applyChanges);
+    private final InventoryListener inventoryListener = this::onInventoryEvents;
+    private final Consumer<LowStockAlert> alertListener = this::onLowStockAlert;
+    private final JLabel status = new JLabel(" ");
+
+    // time spent on the EDT, and how long a task waits in the EDT queue (sampled every 100 ms)
+    private final OperationMetrics edtProductsTable = service.getMetrics().operation("ui.refreshProductsTable");
+    private final OperationMetrics edtRecentTransactions = service.getMetrics().operation("ui.loadRecentTransactions");
+    private final OperationMetrics edtApplyChanges = service.getMetrics().operation("ui.applyChanges");
+    private final OperationMetrics edtQueueDelay = service.getMetrics().operation("ui.edtQueueDelay");
+    private final javax.swing.Timer edtProbe = new javax.swing.Timer(100, e -> {
+        long posted = System.nanoTime();
+        SwingUtilities.invokeLater(() -> edtQueueDelay.recordSince(posted));
+    });
+
+    private final ProductTableModel productModel = new ProductTableModel();
+    private final JTable productTable = new JTable(productModel);
+
+    private final TransactionTableModel txnModel = new TransactionTableModel();
+    private final JTable txnTable = new JTable(txnModel);
+
+    private final LowStockTableModel lowModel = new LowStockTableModel(service.getLowStockAlerts());
+    private final JTable lowTable = new JTable(lowModel);
+
+    private final JComboBox<String> stockLocation = new JComboBox<>(new String[] {LocationStore.DEFAULT});
+    private final LocationSummaryTableModel locationModel = new LocationSummaryTableModel();
+    private final JTable locationTable = new JTable(locationModel);
+    private final StockLevelTableModel locationLowModel = new StockLevelTableModel();
+    private final JTable locationLowTable = new JTable(locationLowModel);
+
+    private final ReportViewer reportViewer = new ReportViewer();
+    private final MetricsTableModel metricsModel = new MetricsTableModel();
+    private final javax.swing.Timer diagnosticsTimer = new javax.swing.Timer(1000, e -> metricsModel.setSnapshots(service.getMetrics().snapshot()));
+
+    private static final String TITLE = "Inventory Management System - Swing";
+
+    /**
+     * Builds the window once per JVM; {@link Bootstrap} shows it for each login and hides it on Logout,
+     * so the service, its indexes and the loaded table models stay warm between users.
+     */
+    public InventorySwingApp() {
+        super(TITLE);
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setSize(1100, 720);
+        setLocationRelativeTo(null);
+        setLayout(new BorderLayout());
+        setJMenuBar(buildMenuBar());
+
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.add("Products", buildProductsPanel());
+        tabs.add("Stock Ops", buildStockPanel());
+        tabs.add("Low Stock", buildLowPanel());
+        tabs.add("Locations", buildLocationsPanel());
+        tabs.add("Reports", buildReportsPanel());
+        tabs.add("Diagnostics", buildDiagnosticsPanel());
+        add(tabs, BorderLayout.CENTER);
+
+        status.setBorder(new EmptyBorder(4,10,4,10));
+        add(status, BorderLayout.SOUTH);
+
+        service.addChangeListener(inventoryListener);
+        service.getLowStockAlerts().addAlertListener(alertListener);
+        refreshAll();
+    }
+
+    /** Shows the window for {@code user}. The tables followed every change while it was hidden. */
+    void beginSession(String user) {
+        setTitle(TITLE + " - " + user);
+        status.setText("Signed in as " + user);
+        edtProbe.start();
+        diagnosticsTimer.start();
+        setVisible(true);
+    }
+
+    /** Hides the window and drops what belongs to the signed-out user: the open report and idle timers. */
+    void endSession() {
+        setVisible(false);
+        reportViewer.clear();
+        edtProbe.stop();
+        diagnosticsTimer.stop();
+    }
+
+    @Override public void dispose() {
+        service.removeChangeListener(inventoryListener);
+        service.getLowStockAlerts().removeAlertListener(alertListener);
+        edtProbe.stop();
+        diagnosticsTimer.stop();
+        reportViewer.stop();
+        super.dispose();
+    }
+
+    private JMenuBar buildMenuBar() {
+        JMenuBar bar = new JMenuBar();
+        JMenu file = new JMenu("File");
+        JMenuItem logout = new JMenuItem("Logout");
+        JMenuItem exit = new JMenuItem("Exit");
+        logout.addActionListener(e -> {
+            endSession();
+            Bootstrap.launchWithLogin();
+        });
+        exit.addActionListener(e -> System.exit(0));
+        file.add(logout); file.add(exit);
+
+        JMenu view = new JMenu("View");
+        JMenuItem refresh = new JMenuItem("Refresh");
+        refresh.addActionListener(e -> refreshAll());
+        view.add(refresh);
+
+        bar.add(file); bar.add(view);
+        return bar;
+    }
+
+    private JPanel buildProductsPanel() {
+        JPanel root = new JPanel(new BorderLayout(10,10));
+        root.setBorder(new EmptyBorder(10,10,10,10));
+
+        JPanel form = new JPanel(new GridBagLayout());
+        form.setBorder(BorderFactory.createTitledBorder("Product Details"));
+        GridBagConstraints g = new GridBagConstraints();
+        g.insets = new Insets(5,5,5,5);
+        g.fill = GridBagConstraints.HORIZONTAL;
+
+        JTextField id = new JTextField(12);
+        JTextField name = new JTextField(18);
+        JTextField category = new JTextField(14);
+        JTextField price = new JTextField(10);
+        JTextField qty = new JTextField(10);
+        JTextField min = new JTextField(10);
+
+        int r=0;
+        g.gridx=0; g.gridy=r; form.add(new JLabel("ID"), g);
+        g.gridx=1; form.add(id, g);
+        g.gridx=2; form.add(new JLabel("Name"), g);
+        g.gridx=3; form.add(name, g); r++;
+        g.gridx=0; g.gridy=r; form.add(new JLabel("Category"), g);
+        g.gridx=1; form.add(category, g);
+        g.gridx=2; form.add(new JLabel("Price"), g);
+        g.gridx=3; form.add(price, g); r++;
+        g.gridx=0; g.gridy=r; form.add(new JLabel("Quantity"), g);
+        g.gridx=1; form.add(qty, g);
+        g.gridx=2; form.add(new JLabel("Min Stock"), g);
+        g.gridx=3; form.add(min, g);
+
+        JPanel btns = new JPanel(new FlowLayout(FlowLayout.LEFT,10,0));
+        JButton add = new JButton("Add");
+        JButton update = new JButton("Update");
+        JButton remove = new JButton("Delete");
+        JButton clear = new JButton("Clear");
+        btns.add(add); btns.add(update); btns.add(remove); btns.add(clear);
+        JTextField search = new JTextField(16);
+        btns.add(Box.createHorizontalStrut(20));
+        btns.add(new JLabel("Search"));
+        btns.add(search);
+        search.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { applySearch(search.getText()); }
+            @Override public void removeUpdate(DocumentEvent e) { applySearch(search.getText()); }
+            @Override public void changedUpdate(DocumentEvent e) { applySearch(search.getText()); }
+        });
+
+        add.addActionListener(e -> {
+            try {
+                Product p = new Product(
+                        id.getText().trim(),
+                        name.getText().trim(),
+                        category.getText().trim(),
+                        Double.parseDouble(price.getText().trim()),
+                        Integer.parseInt(qty.getText().trim()),
+                        Integer.parseInt(min.getText().trim())
+                );
+                write(() -> service.addProduct(p), ok -> {
+                    if (!ok) JOptionPane.showMessageDialog(this, "Product ID already exists.", "Error", JOptionPane.ERROR_MESSAGE);
+                });
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(this, "Invalid input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        update.addActionListener(e -> {
+            try {
+                String pid = id.getText().trim(), pname = name.getText().trim(), pcategory = category.getText().trim();
+                double pprice = Double.parseDouble(price.getText().trim());
+                int pmin = Integer.parseInt(min.getText().trim());
+                Integer pqty = qty.getText().isBlank() ? null : Integer.parseInt(qty.getText().trim());
+                if (pqty != null && pqty < 0) throw new IllegalArgumentException("Quantity cannot be negative");
+                write(() -> {
+                    boolean ok = service.updateProduct(pid, pname, pcategory, pprice, pmin);
+                    if (ok && pqty != null) service.setQuantity(pid, pqty);
+                    return ok;
+                }, ok -> {
+                    if (!ok) JOptionPane.showMessageDialog(this, "Product not found.", "Error", JOptionPane.ERROR_MESSAGE);
+                });
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(this, "Invalid input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        remove.addActionListener(e -> {
+            String pid = id.getText().trim();
+            if (pid.isEmpty()) { JOptionPane.showMessageDialog(this, "Enter Product ID to delete."); return; }
+            int c = JOptionPane.showConfirmDialog(this, "Delete product " + pid + "?", "Confirm", JOptionPane.YES_NO_OPTION);
+            if (c == JOptionPane.YES_OPTION) {
+                write(() -> service.deleteProduct(pid), ok -> {
+                    if (!ok) JOptionPane.showMessageDialog(this, "Product not found.", "Error", JOptionPane.ERROR_MESSAGE);
+                });
+            }
+        });
+        clear.addActionListener(e -> { id.setText(""); name.setText(""); category.setText(""); price.setText(""); qty.setText(""); min.setText(""); });
+
+        productTable.setRowHeight(24);
+        productTable.getColumnModel().getColumn(3).setCellRenderer(new PriceRenderer());
+        JScrollPane scroll = new JScrollPane(productTable);
+        productTable.getSelectionModel().addListSelectionListener(ev -> {
+            int i = productTable.getSelectedRow();
+            if (i >= 0) {
+                Product p = productModel.getProductAt(i);
+                id.setText(p.getProductId());
+                name.setText(p.getName());
+                category.setText(p.getCategory());
+                price.setText(String.format("%.2f", p.getPrice()));
+                qty.setText(String.valueOf(p.getQuantity()));
+                min.setText(String.valueOf(p.getMinStockLevel()));
+            }
+        });
+
+        JPanel top = new JPanel(new BorderLayout(0,8));
+        top.add(form, BorderLayout.CENTER);
+        top.add(btns, BorderLayout.SOUTH);
+
+        root.add(top, BorderLayout.NORTH);
+        root.add(scroll, BorderLayout.CENTER);
+        return root;
+    }
+
+    private JPanel buildStockPanel() {
+        JPanel root = new JPanel(new BorderLayout(10,10));
+        root.setBorder(new EmptyBorder(10,10,10,10));
+
+        JPanel form = new JPanel(new GridBagLayout());
+        form.setBorder(BorderFactory.createTitledBorder("Stock Operation"));
+        GridBagConstraints g = new GridBagConstraints();
+        g.insets = new Insets(5,5,5,5);
+        g.fill = GridBagConstraints.HORIZONTAL;
+
+        JTextField pid = new JTextField(12);
+        JTextField qty = new JTextField(10);
+        JTextField reason = new JTextField(20);
+
+        int r=0;
+        g.gridx=0; g.gridy=r; form.add(new JLabel("Product ID"), g);
+        g.gridx=1; form.add(pid, g);
+        g.gridx=2; form.add(new JLabel("Quantity"), g);
+        g.gridx=3; form.add(qty, g); r++;
+        g.gridx=0; g.gridy=r; form.add(new JLabel("Location"), g);
+        stockLocation.setEditable(true);
+        g.gridx=1; form.add(stockLocation, g);
+        g.gridx=2; form.add(new JLabel("Reason"), g);
+        g.gridx=3; form.add(reason, g);
+
+        JPanel btns = new JPanel(new FlowLayout(FlowLayout.LEFT,10,0));
+        JButton add = new JButton("Add Stock");
+        JButton remove = new JButton("Remove Stock");
+        JButton recent = new JButton("Load Recent (50)");
+        JButton post = new JButton("Post Movements File...");
+        btns.add(add); btns.add(remove); btns.add(recent); btns.add(post);
+
+        add.addActionListener(e -> {
+            try {
+                String id = pid.getText().trim(), why = reason.getText().trim(), at = selectedLocation();
+                int n = Integer.parseInt(qty.getText().trim());
+                write(() -> service.addStock(id, at, n, why), msg -> JOptionPane.showMessageDialog(this, msg));
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(this, "Invalid input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        remove.addActionListener(e -> {
+            try {
+                String id = pid.getText().trim(), why = reason.getText().trim(), at = selectedLocation();
+                int n = Integer.parseInt(qty.getText().trim());
+                write(() -> service.removeStock(id, at, n, why), msg -> JOptionPane.showMessageDialog(this, msg));
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(this, "Invalid input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        recent.addActionListener(e -> loadRecentTransactions(50));
+        post.addActionListener(e -> postMovementsFile());
+
+        txnTable.setRowHeight(24);
+        JScrollPane scroll = new JScrollPane(txnTable);
+
+        JPanel top = new JPanel(new BorderLayout(0,8));
+        top.add(form, BorderLayout.CENTER);
+        top.add(btns, BorderLayout.SOUTH);
+
+        root.add(top, BorderLayout.NORTH);
+        root.add(scroll, BorderLayout.CENTER);
+        return root;
+    }
+
+    private JPanel buildLowPanel() {
+        JPanel root = new JPanel(new BorderLayout(10,10));
+        root.setBorder(new EmptyBorder(10,10,10,10));
+        JLabel info = new JLabel("Products at or below minimum stock level, with suggested reorder quantities");
+        info.setFont(info.getFont().deriveFont(Font.BOLD));
+        lowTable.setRowHeight(24);
+        JScrollPane scroll = new JScrollPane(lowTable);
+        JButton refresh = new JButton("Refresh");
+        refresh.addActionListener(e -> refreshLowStock());
+        JPanel top = new JPanel(new BorderLayout());
+        top.add(info, BorderLayout.WEST);
+        top.add(refresh, BorderLayout.EAST);
+        root.add(top, BorderLayout.NORTH);
+        root.add(scroll, BorderLayout.CENTER);
+        return root;
+    }
+
+    private JPanel buildLocationsPanel() {
+        JPanel root = new JPanel(new BorderLayout(10,10));
+        root.setBorder(new EmptyBorder(10,10,10,10));
+
+        JPanel form = new JPanel(new FlowLayout(FlowLayout.LEFT,10,0));
+        form.setBorder(BorderFactory.createTitledBorder("Location Minimum"));
+        JTextField pid = new JTextField(12);
+        JTextField location = new JTextField(10);
+        JTextField min = new JTextField(6);
+        JButton setMin = new JButton("Set");
+        JButton refresh = new JButton("Refresh");
+        form.add(new JLabel("Product ID")); form.add(pid);
+        form.add(new JLabel("Location")); form.add(location);
+        form.add(new JLabel("Min Stock")); form.add(min);
+        form.add(setMin); form.add(refresh);
+        setMin.addActionListener(e -> {
+            try {
+                String id = pid.getText().trim(), at = location.getText().trim();
+                int n = Integer.parseInt(min.getText().trim());
+                write(() -> service.setLocationMinStock(id, at, n), ok -> {
+                    if (!ok) JOptionPane.showMessageDialog(this, "Product not found");
+                    refreshLocations();
+                });
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(this, "Invalid input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        refresh.addActionListener(e -> refreshLocations());
+
+        locationTable.setRowHeight(24);
+        locationTable.getColumnModel().getColumn(3).setCellRenderer(new PriceRenderer());
+        locationLowTable.setRowHeight(24);
+        JPanel low = new JPanel(new BorderLayout());
+        low.setBorder(BorderFactory.createTitledBorder("Low Stock by Location"));
+        low.add(new JScrollPane(locationLowTable), BorderLayout.CENTER);
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(locationTable), low);
+        split.setResizeWeight(0.4);
+
+        root.add(form, BorderLayout.NORTH);
+        root.add(split, BorderLayout.CENTER);
+        return root;
+    }
+
+    private JPanel buildReportsPanel() {
+        JPanel root = new JPanel(new BorderLayout(10,10));
+        root.setBorder(new EmptyBorder(10,10,10,10));
+        JButton inventorySummary = new JButton("Inventory Summary");
+        JButton productList = new JButton("Product Listing");
+        JButton categoryValue = new JButton("Value by Category");
+        JButton exportCSV = new JButton("Export Products CSV...");
+        JButton exportTxns = new JButton("Export Transactions CSV...");
+        JButton importCSV = new JButton("Import Products CSV...");
+        JButton importTxns = new JButton("Import Transactions CSV...");
+        importTxns.setToolTipText("Restores exported transactions to the history; stock is not changed and IDs already there are skipped");
+        inventorySummary.addActionListener(e -> showReport(InventoryReports::summary));
+        productList.addActionListener(e -> showReport(InventoryReports::productListing));
+        categoryValue.addActionListener(e -> showReport(InventoryReports::valueByCategory));
+        exportCSV.addActionListener(e -> {
+            Path file = chooseFile(true);
+            if (file != null) runInBackground("Exporting products", READS, progress -> {
+                try (InventoryView view = service.openView()) {
+                    return "Exported " + CsvCodec.writeProducts(view.getProducts(), file, progress) + " products.";
+                }
+            });
+        });
+        exportTxns.addActionListener(e -> {
+            Path file = chooseFile(true);
+            if (file != null) runInBackground("Exporting transactions", READS, progress ->
+                    "Exported " + CsvCodec.writeTransactions(service, file, progress) + " transactions.");
+        });
+        importCSV.addActionListener(e -> {
+            Path file = chooseFile(false);
+            if (file != null) runInBackground("Importing products", WRITES, progress -> {
+                List<Product> rows = CsvCodec.readProducts(file, (d, t) -> progress.progress(d, 2 * t));
+                int added = service.importProducts(rows, (d, t) -> progress.progress(t + d, 2L * t));
+                return "Imported " + rows.size() + " products (" + added + " new, " + (rows.size() - added) + " updated).";
+            });
+        });
+        importTxns.addActionListener(e -> {
+            Path file = chooseFile(false);
+            if (file != null) runInBackground("Importing transactions", WRITES, progress -> {
+                List<Transaction> rows = CsvCodec.readTransactions(file, (d, t) -> progress.progress(d, 2 * t));
+                int added = service.importTransactions(rows, (d, t) -> progress.progress(t + d, 2L * t));
+                return "Restored " + added + " transactions to the history, " + (rows.size() - added)
+                        + " were already there. Stock was not changed.";
+            });
+        });
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT,10,0));
+        buttons.add(inventorySummary); buttons.add(productList); buttons.add(categoryValue); buttons.add(exportCSV);
+        buttons.add(exportTxns); buttons.add(importCSV); buttons.add(importTxns);
+        root.add(buttons, BorderLayout.NORTH);
+        root.add(reportViewer, BorderLayout.CENTER);
+        return root;
+    }
+
+    /** Renders a report on the read pool while the viewer pages through the lines written so far. */
+    private void showReport(BiConsumer<InventoryService, ReportText> report) {
+        ReportText text = new ReportText();
+        reportViewer.show(text);
+        read(() -> {
+            try {
+                report.accept(service, text);
+            } catch (CancellationException superseded) {
+                // a newer report replaced this one in the viewer
+            }
+            return text;
+        }, done -> {});
+    }
+
+    /**
+     * Posts a file of {@code productId,IN|OUT,quantity[,reason]} lines as one batch; blank lines, {@code #}
+     * comments and a {@code productId,...} header are skipped. Nothing is applied if any line is rejected.
+     */
+    private void postMovementsFile() {
+        Path file = chooseFile(false);
+        if (file != null) write(() -> postMovements(file), Runnable::run);
+    }
+
+    /** Reads and applies the file on a worker thread; returns the dialog to show on the EDT. */
+    private Runnable postMovements(Path file) {
+        List<StockMovement> movements = new ArrayList<>();
+        List<Integer> lineNumbers = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            for (int n = 1; (line = in.readLine()) != null; n++) {
+                String t = line.trim();
+                if (t.isEmpty() || t.startsWith("#") || (movements.isEmpty() && t.toLowerCase(Locale.ROOT).startsWith("productid"))) continue;
+                try {
+                    movements.add(StockMovement.parse(t));
+                    lineNumbers.add(n);
+                } catch (IllegalArgumentException ex) {
+                    String msg = "Line " + n + ": " + ex.getMessage();
+                    return () -> JOptionPane.showMessageDialog(this, msg, "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        } catch (IOException ex) {
+            return () -> JOptionPane.showMessageDialog(this, "Cannot read file: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+        if (movements.isEmpty()) return () -> JOptionPane.showMessageDialog(this, "No movements found.");
+        BatchResult result = service.applyBatch(movements);
+        if (result.isApplied()) {
+            return () -> JOptionPane.showMessageDialog(this, "Posted " + result.size() + " movements for "
+                    + result.getAffectedProducts().size() + " products.");
+        }
+        StringBuilder sb = new StringBuilder("Batch rejected, nothing was applied:\n");
+        int shown = 0;
+        for (Map.Entry<Integer, StockResult> f : result.getFailures().entrySet()) {
+            if (shown++ == 20) {
+                sb.append("... and ").append(result.getFailures().size() - 20).append(" more\n");
+                break;
+            }
+            StockMovement m = movements.get(f.getKey());
+            sb.append("Line ").append(lineNumbers.get(f.getKey())).append(" (").append(m.productId).append("): ")
+              .append(f.getValue().getMessage()).append("\n");
+        }
+        return () -> JOptionPane.showMessageDialog(this, sb.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    private JPanel buildDiagnosticsPanel() {
+        JPanel root = new JPanel(new BorderLayout(10,10));
+        root.setBorder(new EmptyBorder(10,10,10,10));
+        JLabel info = new JLabel("Operation latencies in microseconds since start or last reset; also published over JMX as " + Metrics.OBJECT_NAME);
+        JTable table = new JTable(metricsModel);
+        table.setRowHeight(24);
+        JButton reset = new JButton("Reset");
+        JButton dump = new JButton("Dump to File...");
+        reset.addActionListener(e -> {
+            service.getMetrics().reset();
+            metricsModel.setSnapshots(service.getMetrics().snapshot());
+        });
+        dump.addActionListener(e -> {
+            Path file = chooseFile(true);
+            if (file != null) read(() -> {
+                service.getMetrics().dump(file);
+                return "Metrics written to " + file;
+            }, msg -> JOptionPane.showMessageDialog(this, msg));
+        });
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT,10,0));
+        buttons.add(reset); buttons.add(dump);
+        JPanel top = new JPanel(new BorderLayout());
+        top.add(info, BorderLayout.WEST);
+        top.add(buttons, BorderLayout.EAST);
+        root.add(top, BorderLayout.NORTH);
+        root.add(new JScrollPane(table), BorderLayout.CENTER);
+        return root;
+    }
+
+    private Path chooseFile(boolean save) {
+        JFileChooser chooser = new JFileChooser();
+        int choice = save ? chooser.showSaveDialog(this) : chooser.showOpenDialog(this);
+        return choice == JFileChooser.APPROVE_OPTION ? chooser.getSelectedFile().toPath() : null;
+    }
+
+    /** Work run off the EDT by {@link #runInBackground}; returns the message shown when it finishes. */
+    private interface BackgroundTask { String run(ProgressListener progress) throws Exception; }
+
+    /** Runs {@code task} on {@code executor} behind a progress monitor; the tables follow its change events. */
+    private void runInBackground(String title, ExecutorService executor, BackgroundTask task) {
+        ProgressMonitor monitor = new ProgressMonitor(this, title, null, 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+        SwingWorker<String, Void> worker = new SwingWorker<>() {
+            @Override protected String doInBackground() throws Exception {
+                return task.run((done, total) -> {
+                    if (isCancelled()) throw new CancellationException();
+                    if (total > 0) setProgress((int) Math.min(100, done * 100 / total));
+                });
+            }
+            @Override protected void done() {
+                monitor.close();
+                try {
+                    JOptionPane.showMessageDialog(InventorySwingApp.this, get());
+                } catch (CancellationException ex) {
+                    JOptionPane.showMessageDialog(InventorySwingApp.this, title + " cancelled.");
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause() instanceof UncheckedIOException ? ex.getCause().getCause() : ex.getCause();
+                    JOptionPane.showMessageDialog(InventorySwingApp.this, title + " failed: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if (monitor.isCanceled()) worker.cancel(false);
+            else if ("progress".equals(e.getPropertyName())) monitor.setProgress((Integer) e.getNewValue());
+        });
+        executor.execute(worker);
+    }
+
+    /* ======= Helpers ======= */
+    private static Thread worker(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+    /** Runs a service mutation on the write thread, then hands its result to {@code then} on the EDT. */
+    private <T> void write(Callable<T> work, Consumer<T> then) { submit(WRITES, work, then); }
+    /** Runs a service read on the read pool, then hands its result to {@code then} on the EDT. */
+    private <T> void read(Callable<T> work, Consumer<T> then) { submit(READS, work, then); }
+    private <T> void submit(ExecutorService executor, Callable<T> work, Consumer<T> then) {
+        executor.execute(() -> {
+            try {
+                T result = work.call();
+                SwingUtilities.invokeLater(() -> then.accept(result));
+            } catch (Exception ex) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this,
+                        "Operation failed: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+            }
+        });
+    }
+
+    private void refreshAll() {
+        refreshProductsTable();
+        refreshLowStock();
+        refreshLocations();
+        loadRecentTransactions(20);
+    }
+    private void refreshProductsTable() {
+        String filter = productModel.getFilter();
+        read(() -> filter.isEmpty() ? allProducts() : service.searchProducts(filter, SEARCH_LIMIT),
+                rows -> {
+                    long start = System.nanoTime();
+                    if (filter.equals(productModel.getFilter())) productModel.setProducts(rows);
+                    edtProductsTable.recordSince(start);
+                });
+    }
+    private void applySearch(String text) {
+        productModel.setFilter(text.trim());
+        refreshProductsTable();
+    }
+    private List<Product> allProducts() {
+        try (InventoryView view = service.openView()) {
+            return view.getProducts();
+        }
+    }
+    private void refreshLowStock() {
+        read(service::getLowStockProducts, lowModel::setProducts);
+    }
+    /** Reloads the per-location totals, the low-stock rows and the stock panel's location choices. */
+    private void refreshLocations() {
+        read(service::getLocationSummaries, locationModel::setSummaries);
+        read(service::getLowStockLevels, locationLowModel::setLevels);
+        read(service::getLocations, names -> {
+            Object typed = stockLocation.getEditor().getItem();
+            names.add(LocationStore.DEFAULT);
+            stockLocation.setModel(new DefaultComboBoxModel<>(names.toArray(new String[0])));
+            stockLocation.getEditor().setItem(typed);
+        });
+    }
+    private String selectedLocation() {
+        Object item = stockLocation.getEditor().getItem();
+        return LocationStore.normalize(item == null ? null : item.toString());
+    }
+    private void loadRecentTransactions(int limit) {
+        read(() -> service.getRecentTransactions(limit), txns -> {
+            long start = System.nanoTime();
+            txnModel.setTransactions(txns);
+            edtRecentTransactions.recordSince(start);
+        });
+    }
+    /** Feeds the service's change events to the refresher, so the tables follow every writer, not just this UI. */
+    private void onInventoryEvents(List<InventoryEvent> events) {
+        Set<String> ids = new HashSet<>();
+        for (InventoryEvent e : events) ids.add(e.productId);
+        refresher.productsChanged(ids);
+    }
+    private void onLowStockAlert(LowStockAlert alert) {
+        SwingUtilities.invokeLater(() -> status.setText("Low stock: " + alert));
+    }
+    /** One frame's worth of changes: sync the affected rows, or reload the tables if there are many. */
+    private void applyChanges(Set<String> productIds) {
+        long start = System.nanoTime();
+        if (productIds.size() > MAX_ROW_SYNCS) {
+            refreshProductsTable();
+            refreshLowStock();
+        } else {
+            try (InventoryView view = service.openView()) {
+                for (String id : productIds) {
+                    Product p = view.getProduct(id);
+                    if (p == null) {
+                        productModel.remove(id);
+                        lowModel.remove(id);
+                    } else {
+                        productModel.sync(p);
+                        lowModel.sync(p);
+                    }
+                }
+            }
+        }
+        edtApplyChanges.recordSince(start);
+        loadRecentTransactions(20);
+    }
+
+    /* ======= Bootstrap with login ======= */
+    static class Bootstrap {
+        private static InventoryService service;
+        private static AuthService auth;
+        private static InventorySwingApp frame; // built on first login, reused after each Logout
+
+        /**
+         * One AuthService per JVM, so its login cache and lockouts survive Logout. Credentials live in
+         * {@code -Dinventory.credentials=<file>}, else {@code users.db} in the data directory, else in memory.
+         */
+        static synchronized AuthService auth() {
+            if (auth != null) return auth;
+            String file = System.getProperty("inventory.credentials");
+            String dir = System.getProperty("inventory.dataDir");
+            if (file == null && dir != null) file = Paths.get(dir, "users.db").toString();
+            if (file == null) {
+                auth = new AuthService();
+            } else {
+                try {
+                    auth = new AuthService(new FileCredentialStore(Paths.get(file)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read credentials from " + file, e);
+                }
+            }
+            return auth;
+        }
+
+        /**
+         * The application-scoped service, created on first use and shared by every login. In-memory demo
+         * data by default. With {@code -Dinventory.dataDir=<dir>} the journaled service is opened instead
+         * (a journal directory must have a single writer), snapshotted every
+         * {@code inventory.snapshotMinutes} (default 5) and on exit; {@code -Dinventory.syncCommit=true}
+         * makes every write wait for its group commit.
+         */
+        static synchronized InventoryService service() {
+            if (service != null) return service;
+            String dir = System.getProperty("inventory.dataDir");
+            if (dir == null) {
+                service = new InventoryService();
+            } else {
+                InventoryService s;
+                try {
+                    s = InventoryService.open(Paths.get(dir), Boolean.getBoolean("inventory.syncCommit"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot open inventory journal in " + dir, e);
+                }
+                s.startPeriodicSnapshots(Long.getLong("inventory.snapshotMinutes", 5), TimeUnit.MINUTES);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try { s.snapshot(); } catch (IOException e) { System.err.println("Final snapshot failed: " + e); }
+                    s.close();
+                }, "journal-shutdown"));
+                service = s;
+            }
+            service.getMetrics().registerMBean();
+            return service;
+        }
+
+        static void launchWithLogin() {
+            SwingUtilities.invokeLater(() -> {
+                if (frame == null) {
+                    try { UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName()); } catch (Exception ignored) {}
+                }
+                LoginDialog dialog = new LoginDialog(null, auth());
+                dialog.setVisible(true);
+                if (dialog.isAuthenticated()) {
+                    if (frame == null) frame = new InventorySwingApp();
+                    frame.beginSession(dialog.getUsername());
+                } else {
+                    System.exit(0);
+                }
+            });
+        }
+    }
+
+    /**
+     * {@code --server [port]} serves the HTTP API headless (see {@link InventoryHttpServer}) on
+     * {@code inventory.httpHost} (default 127.0.0.1) with {@code inventory.httpThreads} workers and an
+     * optional {@code inventory.apiToken}; {@code --passwd <user>} sets a password in the credential
+     * store from the console; otherwise starts the UI.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 1 && args[0].equals("--server")) {
+            System.setProperty("java.awt.headless", "true");
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+            InetSocketAddress address = new InetSocketAddress(System.getProperty("inventory.httpHost", "127.0.0.1"), port);
+            InventoryHttpServer server = InventoryHttpServer.start(Bootstrap.service(), address,
+                    Integer.getInteger("inventory.httpThreads", 32), System.getProperty("inventory.apiToken"));
+            System.out.println("Inventory API listening on http://" + address.getHostString() + ":" + server.getAddress().getPort());
+            return;
+        }
+        if (args.length == 2 && args[0].equals("--passwd")) {
+            if (System.getProperty("inventory.credentials") == null && System.getProperty("inventory.dataDir") == null) {
+                System.err.println("Set -Dinventory.credentials=<file> or -Dinventory.dataDir=<dir> to choose where to store it");
+                System.exit(1);
+            }
+            Console console = System.console();
+            if (console == null) throw new IllegalStateException("--passwd needs an interactive console");
+            char[] pw = console.readPassword("New password for %s: ", args[1]);
+            char[] again = console.readPassword("Repeat: ");
+            if (pw == null || pw.length == 0 || !Arrays.equals(pw, again)) {
+                System.err.println("Passwords are empty or do not match");
+                System.exit(1);
+            }
+            Bootstrap.auth().setPassword(args[1], pw);
+            System.out.println("Password updated for " + args[1]);
+            return;
+        }
+        Bootstrap.launchWithLogin();
+    }
+}
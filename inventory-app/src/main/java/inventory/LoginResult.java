@@ -0,0 +1,18 @@
+package inventory;
+
+/** Outcome of {@link AuthService#authenticate}. */
+final class LoginResult {
+    enum Status { OK, INVALID, LOCKED }
+
+    final Status status;
+    final String username;
+    final long retryAfterMillis; // LOCKED only
+
+    private LoginResult(Status status, String username, long retryAfterMillis) {
+        this.status = status; this.username = username; this.retryAfterMillis = retryAfterMillis;
+    }
+    static LoginResult ok(String username) { return new LoginResult(Status.OK, username, 0); }
+    static LoginResult invalid() { return new LoginResult(Status.INVALID, null, 0); }
+    static LoginResult locked(long retryAfterMillis) { return new LoginResult(Status.LOCKED, null, retryAfterMillis); }
+    boolean isOk() { return status == Status.OK; }
+}
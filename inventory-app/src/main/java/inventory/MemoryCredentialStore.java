@@ -0,0 +1,11 @@
+package inventory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Credentials that last as long as the JVM, for the in-memory demo mode. */
+final class MemoryCredentialStore implements CredentialStore {
+    private final Map<String, PasswordHash> users = new ConcurrentHashMap<>();
+    @Override public PasswordHash find(String username) { return users.get(username); }
+    @Override public void put(String username, PasswordHash hash) { users.put(username, hash); }
+}
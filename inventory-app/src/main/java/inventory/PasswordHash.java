@@ -0,0 +1,57 @@
+package inventory;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * A salted PBKDF2-HMAC-SHA256 password hash, stored as {@code pbkdf2-sha256$iterations$salt$hash}
+ * (Base64). Deliberately slow: one verification costs {@link #DEFAULT_ITERATIONS} HMAC rounds.
+ */
+final class PasswordHash {
+    static final int DEFAULT_ITERATIONS = Integer.getInteger("inventory.pbkdf2Iterations", 210_000);
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    final int iterations;
+    private final byte[] salt, hash;
+
+    private PasswordHash(int iterations, byte[] salt, byte[] hash) {
+        this.iterations = iterations; this.salt = salt; this.hash = hash;
+    }
+
+    static PasswordHash create(char[] password) {
+        byte[] salt = new byte[16];
+        RANDOM.nextBytes(salt);
+        return new PasswordHash(DEFAULT_ITERATIONS, salt, derive(password, salt, DEFAULT_ITERATIONS, 32));
+    }
+
+    static PasswordHash parse(String encoded) {
+        String[] f = encoded.split("\\$");
+        if (f.length != 4 || !f[0].equals(PREFIX)) throw new IllegalArgumentException("Unsupported password hash");
+        Base64.Decoder b64 = Base64.getDecoder();
+        return new PasswordHash(Integer.parseInt(f[1]), b64.decode(f[2]), b64.decode(f[3]));
+    }
+
+    /** Compares in constant time, so a mismatch does not reveal how much of the hash matched. */
+    boolean verify(char[] password) {
+        return MessageDigest.isEqual(hash, derive(password, salt, iterations, hash.length));
+    }
+
+    String encode() {
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + b64.encodeToString(salt) + "$" + b64.encodeToString(hash);
+    }
+
+    private static byte[] derive(char[] password, byte[] salt, int iterations, int bytes) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, bytes * 8);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashTest {
+    @Test
+    void verifiesTheRightPasswordAndRejectsOthers() {
+        PasswordHash h = PasswordHash.create("s3cret".toCharArray());
+        assertTrue(h.verify("s3cret".toCharArray()));
+        assertFalse(h.verify("s3creT".toCharArray()));
+        assertFalse(h.verify("".toCharArray()));
+    }
+
+    @Test
+    void survivesEncodingAndSaltsEachHash() {
+        PasswordHash h = PasswordHash.create("s3cret".toCharArray());
+        PasswordHash parsed = PasswordHash.parse(h.encode());
+        assertEquals(h.iterations, parsed.iterations);
+        assertTrue(parsed.verify("s3cret".toCharArray()));
+        assertFalse(parsed.verify("wrong".toCharArray()));
+        assertNotEquals(h.encode(), PasswordHash.create("s3cret".toCharArray()).encode());
+    }
+
+    @Test
+    void rejectsUnknownFormats() {
+        assertThrows(IllegalArgumentException.class, () -> PasswordHash.parse("md5$1$abc$def"));
+        assertThrows(IllegalArgumentException.class, () -> PasswordHash.parse("pbkdf2-sha256$1000$abc"));
+    }
+}
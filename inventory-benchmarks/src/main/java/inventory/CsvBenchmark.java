@@ -0,0 +1,37 @@
+package inventory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times {@link CsvCodec} on a generated catalog: export, parse, and import into an in-memory service.
+ * Run with {@code java -cp benchmarks.jar inventory.CsvBenchmark [rows]}.
+ */
+class CsvBenchmark {
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<Product> catalog = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            catalog.add(new Product("C" + i, "Item, size " + (i % 40), "Cat" + (i % 50), 0.5 + i % 1000, i % 500, 10));
+        }
+        Path file = Files.createTempFile("inv-bench", ".csv");
+        try {
+            long t0 = System.nanoTime();
+            CsvCodec.writeProducts(catalog, file, ProgressListener.NONE);
+            long t1 = System.nanoTime();
+            List<Product> rows = CsvCodec.readProducts(file, ProgressListener.NONE);
+            long t2 = System.nanoTime();
+            try (InventoryService service = InventoryService.empty()) {
+                service.importProducts(rows, ProgressListener.NONE);
+            }
+            long t3 = System.nanoTime();
+            System.out.printf("%d rows, %.1f MB: export %.0fms, parse %.0fms, import %.0fms%n", rows.size(),
+                    Files.size(file) / 1e6, (t1 - t0) / 1e6, (t2 - t1) / 1e6, (t3 - t2) / 1e6);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
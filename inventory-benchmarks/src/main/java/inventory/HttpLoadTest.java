@@ -0,0 +1,120 @@
+package inventory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load test of the HTTP API: each client thread keeps one keep-alive connection and sends
+ * requests back to back, mostly product reads plus stock IN/OUT pairs, then reports requests per second
+ * and latency percentiles per request kind, and the time to stream the full product listing. Starts an
+ * in-memory server with a generated catalog unless {@code --url} points at a running one.
+ * Run with {@code java -cp benchmarks.jar inventory.HttpLoadTest [--url http://host:port] [--clients 8]
+ * [--seconds 10] [--products 100000] [--writes 20] [--token t]}.
+ */
+class HttpLoadTest {
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opt = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) opt.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        int clients = Integer.parseInt(opt.getOrDefault("clients", "8"));
+        int seconds = Integer.parseInt(opt.getOrDefault("seconds", "10"));
+        int products = Integer.parseInt(opt.getOrDefault("products", "100000"));
+        int writePercent = Integer.parseInt(opt.getOrDefault("writes", "20"));
+        String token = opt.get("token");
+        // keep one idle connection per client in the JDK's keep-alive cache (default 5)
+        System.setProperty("http.maxConnections", Integer.toString(Math.max(5, clients)));
+
+        InventoryService service = null;
+        InventoryHttpServer server = null;
+        String base = opt.get("url");
+        if (base == null) {
+            service = InventoryService.empty();
+            for (int i = 0; i < products; i++) service.addProduct(new Product("H" + i, "Item " + i, "Cat" + (i % 50), 1 + i % 500, 1_000, 10));
+            server = InventoryHttpServer.start(service, new InetSocketAddress("127.0.0.1", 0),
+                    Integer.getInteger("inventory.httpThreads", 32), token);
+            base = "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+        try {
+            String url = base;
+            System.out.printf("%s, %d clients, %d%% writes, %ds (after %ds warm-up)%n", url, clients, writePercent, seconds, 3);
+            run(url, clients, 3, products, writePercent, token); // warm-up
+            LatencyHistogram[] h = run(url, clients, seconds, products, writePercent, token);
+            long total = h[0].count() + h[1].count();
+            System.out.printf("%,.0f requests/s%n", total / (double) seconds);
+            print("GET /products/{id}", h[0]);
+            print("POST /products/{id}/stock", h[1]);
+            long t0 = System.nanoTime();
+            long bytes = request(url + "/products", "GET", null, token);
+            System.out.printf("GET /products streamed %.1f MB in %.0f ms%n", bytes / 1e6, (System.nanoTime() - t0) / 1e6);
+        } finally {
+            if (server != null) server.close();
+            if (service != null) service.close();
+        }
+    }
+
+    /** Returns read and write latency histograms (nanos) for {@code seconds} of load. */
+    private static LatencyHistogram[] run(String url, int clients, int seconds, int products, int writePercent, String token)
+            throws InterruptedException {
+        LatencyHistogram reads = new LatencyHistogram(), writes = new LatencyHistogram();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        Thread[] threads = new Thread[clients];
+        for (int c = 0; c < clients; c++) {
+            threads[c] = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                try {
+                    while (System.nanoTime() < end) {
+                        String id = "H" + rnd.nextInt(products);
+                        long t = System.nanoTime();
+                        if (rnd.nextInt(100) < writePercent) {
+                            request(url + "/products/" + id + "/stock", "POST", "{\"type\":\"IN\",\"quantity\":1}", token);
+                            writes.record(System.nanoTime() - t);
+                            t = System.nanoTime();
+                            request(url + "/products/" + id + "/stock", "POST", "{\"type\":\"OUT\",\"quantity\":1}", token);
+                            writes.record(System.nanoTime() - t);
+                        } else {
+                            request(url + "/products/" + id, "GET", null, token);
+                            reads.record(System.nanoTime() - t);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, "load-" + c);
+            threads[c].start();
+        }
+        for (Thread t : threads) t.join();
+        return new LatencyHistogram[] {reads, writes};
+    }
+
+    /** Sends one request on a pooled keep-alive connection and drains the response; returns its size. */
+    private static long request(String url, String method, String body, String token) throws IOException {
+        HttpURLConnection c = (java.net.HttpURLConnection) new URL(url).openConnection();
+        c.setRequestMethod(method);
+        if (token != null) c.setRequestProperty("Authorization", "Bearer " + token);
+        if (body != null) {
+            c.setDoOutput(true);
+            c.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = c.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = c.getResponseCode();
+        try (InputStream in = status < 400 ? c.getInputStream() : c.getErrorStream()) {
+            if (status >= 500 || status == 401) throw new IOException(method + " " + url + ": HTTP " + status);
+            return in == null ? 0 : in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static void print(String name, LatencyHistogram h) {
+        System.out.printf("  %-26s %,10d req  p50 %7.1fus  p99 %7.1fus  p99.9 %7.1fus  max %7.1fus%n", name, h.count(),
+                h.percentile(50) / 1e3, h.percentile(99) / 1e3, h.percentile(99.9) / 1e3, h.max() / 1e3);
+    }
+}
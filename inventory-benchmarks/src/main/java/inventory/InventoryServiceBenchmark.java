@@ -0,0 +1,185 @@
+package inventory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Throughput of the {@link InventoryService} write and read paths at 1k, 100k and 1M products, on one
+ * thread, on four threads, and as a "readWrite" group where one writer runs alongside three readers.
+ * Build with {@code mvn -B package}, then run {@code java -jar inventory-benchmarks/target/benchmarks.jar};
+ * append a method regex or {@code -p products=1000} to narrow the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InventoryServiceBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int products;
+
+    private InventoryService service;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = InventoryService.empty();
+        ids = new String[products];
+        for (int i = 0; i < products; i++) {
+            ids[i] = "B" + i;
+            // every 20th product sits at its minimum, so 5% of the catalog is low
+            service.addProduct(new Product(ids[i], "Item " + i, "Cat" + (i % 50), 1 + i % 500, i % 20 == 0 ? 10 : 1_000, 10));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.close();
+    }
+
+    /** An IN followed by an OUT of the same random product, so quantities do not drift. */
+    @Benchmark
+    @Threads(1)
+    public void stockMovement() {
+        move();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void stockMovement4Threads() {
+        move();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Product> lowStockProducts() {
+        return service.getLowStockProducts();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Product> lowStockProducts4Threads() {
+        return service.getLowStockProducts();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double totalValue() {
+        return service.getTotalValue();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double totalValue4Threads() {
+        return service.getTotalValue();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Transaction> recentTransactions() {
+        return service.getRecentTransactions(50);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Transaction> recentTransactions4Threads() {
+        return service.getRecentTransactions(50);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ReportText summaryReport() {
+        return render(InventoryReports::summary);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ReportText summaryReport4Threads() {
+        return render(InventoryReports::summary);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ReportText productListing() {
+        return render(InventoryReports::productListing);
+    }
+
+    /** The listing as it was built before the report engine, one format string per row, for comparison. */
+    @Benchmark
+    @Threads(1)
+    public String productListingFormatted() {
+        StringBuilder sb = new StringBuilder("=== PRODUCT LIST ===\n");
+        for (Product p : service.getAllProducts()) {
+            sb.append("%s | %s | %s | $%.2f | Q=%d | Min=%d | %s\n"
+                    .formatted(p.getProductId(), p.getName(), p.getCategory(), p.getPrice(),
+                            p.getQuantity(), p.getMinStockLevel(), p.isLowStock() ? "LOW" : "OK"));
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ReportText valueByCategory() {
+        return render(InventoryReports::valueByCategory);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void readWriteMovement() {
+        move();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public double readWriteTotalValue() {
+        return service.getTotalValue();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public List<Product> readWriteLowStock() {
+        return service.getLowStockProducts();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public List<Transaction> readWriteRecent() {
+        return service.getRecentTransactions(50);
+    }
+
+    private ReportText render(BiConsumer<InventoryService, ReportText> report) {
+        ReportText text = new ReportText();
+        report.accept(service, text);
+        return text;
+    }
+
+    private void move() {
+        String id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        service.addStock(id, 2, null);
+        service.removeStock(id, 2, null);
+    }
+}
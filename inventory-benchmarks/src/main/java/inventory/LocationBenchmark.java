@@ -0,0 +1,144 @@
+package inventory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-location stock: each product is stocked at {@value #SITES_PER_PRODUCT} of {@code sites}
+ * locations, so 200k products make 1.6M location rows. Measures per-site movements, transfers between
+ * sites (a two-movement batch), and the parallel per-location totals and low-stock scan, alone and
+ * while a writer keeps moving stock. Run with {@code java -jar benchmarks.jar LocationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LocationBenchmark {
+    private static final int SITES_PER_PRODUCT = 8;
+
+    @Param({"10000", "200000"})
+    public int products;
+
+    @Param({"8", "256"})
+    public int sites;
+
+    private InventoryService service;
+    private String[] ids, locations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = InventoryService.empty();
+        ids = new String[products];
+        locations = new String[sites];
+        for (int s = 0; s < sites; s++) locations[s] = "WH" + s;
+        for (int i = 0; i < products; i++) {
+            ids[i] = "L" + i;
+            service.addProduct(new Product(ids[i], "Item " + i, "Cat" + (i % 50), 1 + i % 500, 0, 10));
+            for (int k = 0; k < SITES_PER_PRODUCT; k++) {
+                String site = site(i, k);
+                // every 20th product sits at its site minimum, so 5% of the rows are low
+                service.addStock(ids[i], site, i % 20 == 0 ? 5 : 1_000, null);
+                service.setLocationMinStock(ids[i], site, 5);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.close();
+    }
+
+    /** An IN followed by an OUT at one of a random product's sites. */
+    @Benchmark
+    @Threads(1)
+    public void stockMovementAtSite() {
+        move();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void stockMovementAtSite4Threads() {
+        move();
+    }
+
+    /** Moves one unit from one of a product's sites to another and back, as two atomic batches. */
+    @Benchmark
+    @Threads(1)
+    public boolean transfer() {
+        return transferOnce();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean transfer4Threads() {
+        return transferOnce();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Map<String, InventoryTotals> locationSummaries() {
+        return service.getLocationSummaries();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<StockLevel> lowStockLevels() {
+        return service.getLowStockLevels();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void readWriteMovement() {
+        move();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public Map<String, InventoryTotals> readWriteSummaries() {
+        return service.getLocationSummaries();
+    }
+
+    private String site(int product, int k) {
+        return locations[(product + k * Math.max(1, sites / SITES_PER_PRODUCT)) % sites];
+    }
+
+    private void move() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int i = rnd.nextInt(ids.length);
+        String site = site(i, rnd.nextInt(SITES_PER_PRODUCT));
+        service.addStock(ids[i], site, 2, null);
+        service.removeStock(ids[i], site, 2, null);
+    }
+
+    private boolean transferOnce() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int i = rnd.nextInt(ids.length);
+        String from = site(i, 0), to = site(i, 1 + rnd.nextInt(SITES_PER_PRODUCT - 1));
+        boolean there = service.applyBatch(List.of(StockMovement.out(ids[i], from, 1, null), StockMovement.in(ids[i], to, 1, null))).isApplied();
+        boolean back = service.applyBatch(List.of(StockMovement.out(ids[i], to, 1, null), StockMovement.in(ids[i], from, 1, null))).isApplied();
+        return there && back;
+    }
+}
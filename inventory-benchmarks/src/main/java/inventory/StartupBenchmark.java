@@ -0,0 +1,58 @@
+package inventory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Measures {@link InventoryService#open} time against catalog size, replaying the full journal versus
+ * loading a snapshot plus the tail written after it.
+ * Run with {@code java -cp benchmarks.jar inventory.StartupBenchmark [catalogSize...]}.
+ */
+class StartupBenchmark {
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length == 0 ? new int[]{1_000, 100_000, 1_000_000}
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        System.out.printf("%10s %12s %12s %14s%n", "products", "movements", "full replay", "snapshot+tail");
+        for (int n : sizes) {
+            int movements = n * 2;
+            Path full = Files.createTempDirectory("inv-bench-full");
+            Path snap = Files.createTempDirectory("inv-bench-snap");
+            populate(full, n, movements, false);
+            populate(snap, n, movements, true);
+            System.out.printf("%10d %12d %10.1fms %12.1fms%n", n, movements, timeOpen(full), timeOpen(snap));
+            deleteTree(full);
+            deleteTree(snap);
+        }
+    }
+
+    /** Writes {@code n} products and {@code movements} stock changes; with {@code snapshot}, 90% happen before it. */
+    private static void populate(Path dir, int n, int movements, boolean snapshot) throws IOException {
+        try (InventoryService s = InventoryService.open(dir, false)) {
+            for (int i = 0; i < n; i++) s.addProduct(new Product("B" + i, "Item " + i, "Cat" + (i % 50), 9.99, 100, 10));
+            for (int i = 0; i < movements; i++) {
+                if (snapshot && i == movements * 9 / 10) s.snapshot();
+                String id = "B" + (i % n);
+                if ((i & 1) == 0) s.addStock(id, 2, null); else s.removeStock(id, 1, null);
+            }
+        }
+    }
+
+    private static double timeOpen(Path dir) throws IOException {
+        long t0 = System.nanoTime();
+        try (InventoryService s = InventoryService.open(dir, false)) {
+            double ms = (System.nanoTime() - t0) / 1e6;
+            if (s.getAllProducts().isEmpty()) throw new IllegalStateException("nothing recovered");
+            return ms;
+        }
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package inventory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.SortedMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-travel queries over a catalog with {@code movesPerProduct} stock movements per product:
+ * quantity at a random past moment from the stock timelines, the same answer found the old way by
+ * undoing every later transaction from the history, and a month of daily closing stock.
+ * Run with {@code java -jar benchmarks.jar StockHistoryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StockHistoryBenchmark {
+    @Param({"1000", "100000"})
+    public int products;
+
+    @Param({"16"})
+    public int movesPerProduct;
+
+    private InventoryService service;
+    private String[] ids;
+    private long from, to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = InventoryService.empty();
+        ids = new String[products];
+        from = System.currentTimeMillis();
+        for (int i = 0; i < products; i++) {
+            ids[i] = "T" + i;
+            service.addProduct(new Product(ids[i], "Item " + i, "Cat" + (i % 50), 1 + i % 500, 1_000, 10));
+        }
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (long n = (long) products * movesPerProduct; n > 0; n--) {
+            String id = ids[rnd.nextInt(products)];
+            if (rnd.nextBoolean()) service.addStock(id, 1 + rnd.nextInt(5), null);
+            else service.removeStock(id, 1 + rnd.nextInt(5), null);
+        }
+        to = System.currentTimeMillis();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer quantityAt() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        return service.getQuantityAt(ids[rnd.nextInt(products)], time(rnd.nextLong(from, to + 1)));
+    }
+
+    /** The answer without timelines: start from today's quantity and undo every later transaction. */
+    @Benchmark
+    @Threads(1)
+    public int quantityAtByScan() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String id = ids[rnd.nextInt(products)];
+        long at = rnd.nextLong(from, to + 1);
+        int qty = service.getProduct(id).getQuantity();
+        TransactionQuery later = TransactionQuery.all().product(id).since(at + 1);
+        long cursor = Long.MAX_VALUE;
+        do {
+            TransactionPage page = service.queryTransactions(later, cursor, 1000);
+            for (Transaction t : page.getItems()) qty += t.getTransactionType() == TransactionType.IN ? -t.getQuantity() : t.getQuantity();
+            cursor = page.getNextCursor();
+        } while (cursor >= 0);
+        return qty;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public SortedMap<LocalDate, Integer> dailyClosingMonth() {
+        LocalDate today = LocalDate.now();
+        return service.getDailyClosingStock(ids[ThreadLocalRandom.current().nextInt(products)], today.minusDays(30), today);
+    }
+
+    private static LocalDateTime time(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
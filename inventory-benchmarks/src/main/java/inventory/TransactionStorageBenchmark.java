@@ -0,0 +1,80 @@
+package inventory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills a store with {@code size} movements: the columnar {@link TransactionHistory} against the original
+ * one-object-per-movement representation (String ID from String.format, String type, LocalDateTime
+ * timestamp). Time is per fill; add {@code -prof gc} for the bytes allocated per fill
+ * ({@code gc.alloc.rate.norm}). For the columnar layout that is what the store retains; the object layout
+ * also counts its String.format garbage, so it is an upper bound there.
+ * Run with {@code java -jar benchmarks.jar TransactionStorageBenchmark -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TransactionStorageBenchmark {
+    private static final String[] REASONS = {"Stock In", "Stock Out", "Purchase order", "Customer order", "Cycle count"};
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private String[] ids;
+
+    /** The pre-columnar Transaction layout, kept here only as a baseline. */
+    private static final class LegacyTransaction {
+        final String transactionId, productId, type, reason;
+        final int quantity;
+        final LocalDateTime timestamp;
+        LegacyTransaction(String transactionId, String productId, String type, int quantity, String reason) {
+            this.transactionId = transactionId; this.productId = productId; this.type = type;
+            this.quantity = quantity; this.reason = reason; this.timestamp = LocalDateTime.now();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = new String[1000];
+        for (int i = 0; i < ids.length; i++) ids[i] = "P" + i;
+    }
+
+    @Benchmark
+    public List<LegacyTransaction> objects() {
+        List<LegacyTransaction> legacy = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            legacy.add(new LegacyTransaction("TXN" + String.format("%06d", i), ids[i % ids.length],
+                    (i & 1) == 0 ? "IN" : "OUT", 1 + (i & 7), REASONS[i % REASONS.length]));
+        }
+        return legacy;
+    }
+
+    @Benchmark
+    public TransactionHistory columnar() {
+        TransactionHistory columns = new TransactionHistory(size);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < size; i++) {
+            columns.add(i, ids[i % ids.length], (i & 1) == 0 ? TransactionType.IN : TransactionType.OUT,
+                    1 + (i & 7), REASONS[i % REASONS.length], now + i);
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,24 @@
+package inventory;
+
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Outcome of {@link InventoryService#applyBatch}: either every movement was applied, or none was and
+ * {@link #getFailures()} maps the index of each rejected movement to why.
+ */
+public final class BatchResult {
+    private final boolean applied;
+    private final int size;
+    private final SortedMap<Integer, StockResult> failures;
+    private final Set<String> affectedProducts;
+
+    BatchResult(boolean applied, int size, SortedMap<Integer, StockResult> failures, Set<String> affectedProducts) {
+        this.applied = applied; this.size = size; this.failures = failures; this.affectedProducts = affectedProducts;
+    }
+    public boolean isApplied() { return applied; }
+    public int size() { return size; }
+    public SortedMap<Integer, StockResult> getFailures() { return failures; }
+    /** IDs whose quantity changed; empty when the batch was rejected. */
+    public Set<String> getAffectedProducts() { return affectedProducts; }
+}
@@ -0,0 +1,148 @@
+package inventory;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multi-producer ring buffer with a single dispatcher thread. Publishers claim a slot with one atomic
+ * increment and mark it published by its sequence number; the dispatcher delivers every contiguous run
+ * of published slots to all listeners as one batch, so a burst of writes costs listeners one call.
+ * With no listeners publishing is a no-op.
+ * <p>
+ * Publishers hold a product's stripe lock, which is what orders each product's events, so they never
+ * wait here: when the ring is full the slot is still claimed, in order, but the event is kept on the
+ * publishing thread until {@link #flush()}, which the service calls once its locks are released and
+ * which parks until the dispatcher has made room. A slow listener then holds up the writers whose events
+ * it has not taken yet, never the others queued on their locks.
+ */
+final class ChangeBus implements Closeable {
+    private static final int MAX_BATCH = 1024;
+    private static final long MAX_BACKOFF_NANOS = 1_000_000L;
+
+    private static final class Deferred {
+        final long seq;
+        final InventoryEvent event;
+        Deferred(long seq, InventoryEvent event) { this.seq = seq; this.event = event; }
+    }
+
+    private final int mask;
+    private final AtomicReferenceArray<InventoryEvent> slots;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    private final List<InventoryListener> listeners = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<ArrayDeque<Deferred>> deferred = ThreadLocal.withInitial(ArrayDeque::new);
+    private final AtomicInteger deferredCount = new AtomicInteger(); // across all threads; lets flush() skip the lookup
+    private Thread dispatcher;
+    private volatile boolean closed;
+
+    ChangeBus(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) published.set(i, -1);
+    }
+
+    synchronized void subscribe(InventoryListener l) {
+        listeners.add(l);
+        if (dispatcher == null && !closed) {
+            dispatcher = new Thread(this::dispatchLoop, "inventory-events");
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+        }
+    }
+
+    void unsubscribe(InventoryListener l) { listeners.remove(l); }
+
+    boolean hasListeners() { return !listeners.isEmpty(); }
+
+    /** Claims the next slot and fills it, or defers the event to {@link #flush()} if the ring is full; never waits. */
+    void publish(InventoryEvent e) {
+        if (listeners.isEmpty() || closed) return;
+        long seq = claimed.getAndIncrement();
+        if (seq - consumed > mask) {
+            deferred.get().add(new Deferred(seq, e));
+            deferredCount.incrementAndGet();
+            LockSupport.unpark(dispatcher);
+            return;
+        }
+        store(seq, e);
+    }
+
+    /**
+     * Fills the slots this thread claimed while the ring was full, parking until the dispatcher has
+     * delivered enough to make room. Call without holding any lock a publisher may need.
+     */
+    void flush() {
+        if (deferredCount.get() == 0) return;
+        ArrayDeque<Deferred> mine = deferred.get();
+        long backoff = 1_000;
+        for (Deferred d; (d = mine.peek()) != null; ) {
+            if (d.seq - consumed > mask && !closed) {
+                LockSupport.unpark(dispatcher);
+                LockSupport.parkNanos(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+                continue;
+            }
+            mine.poll();
+            deferredCount.decrementAndGet();
+            if (!closed) store(d.seq, d.event);
+        }
+    }
+
+    private void store(long seq, InventoryEvent e) {
+        int i = (int) seq & mask;
+        slots.lazySet(i, e);
+        published.set(i, seq);
+        LockSupport.unpark(dispatcher);
+    }
+
+    /** Delivers whatever is already published, then stops the dispatcher. */
+    @Override public void close() {
+        Thread t;
+        synchronized (this) {
+            closed = true;
+            t = dispatcher;
+        }
+        if (t == null) return;
+        LockSupport.unpark(t);
+        try { t.join(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+
+    private void dispatchLoop() {
+        List<InventoryEvent> batch = new ArrayList<>(MAX_BATCH);
+        long next = consumed;
+        while (true) {
+            boolean stopping = closed;
+            for (int i = (int) next & mask; batch.size() < MAX_BATCH && published.get(i) == next; i = (int) next & mask) {
+                batch.add(slots.get(i));
+                slots.lazySet(i, null);
+                next++;
+            }
+            if (batch.isEmpty()) {
+                if (stopping) return;
+                LockSupport.parkNanos(10_000_000L);
+                continue;
+            }
+            consumed = next;
+            List<InventoryEvent> delivered = List.copyOf(batch);
+            batch.clear();
+            for (InventoryListener l : listeners) {
+                try {
+                    l.onChanges(delivered);
+                } catch (RuntimeException ex) {
+                    System.err.println("Inventory listener failed: " + ex);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package inventory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming CSV (RFC 4180 quoting, UTF-8) for products and transactions. Export encodes rows straight
+ * into a direct buffer that is drained to a FileChannel, then moves the file into place. Import maps the
+ * file, splits it into line-aligned chunks that are parsed in parallel, and reads numbers directly from
+ * the bytes, so the only per-field allocations are the Strings the domain objects keep.
+ */
+public final class CsvCodec {
+    static final String PRODUCT_HEADER = "id,name,category,price,quantity,minStock";
+    static final String TRANSACTION_HEADER = "id,productId,type,quantity,reason,timestamp";
+    static final int CHUNK = 4 << 20;
+    private static final int PROGRESS_ROWS = 16384;
+
+    private CsvCodec() {}
+
+    static long writeProducts(Collection<Product> products, Path file, ProgressListener progress) throws IOException {
+        long total = products.size(), rows = 0;
+        try (Writer out = new Writer(file)) {
+            out.row(PRODUCT_HEADER);
+            for (Product p : products) {
+                out.field(p.getProductId()).field(p.getName()).field(p.getCategory())
+                   .cents(Math.round(p.getPrice() * 100)).field(p.getQuantity()).field(p.getMinStockLevel()).endRow();
+                if (++rows % PROGRESS_ROWS == 0) progress.progress(rows, total);
+            }
+            out.commit();
+        }
+        progress.progress(rows, total);
+        return rows;
+    }
+
+    /** Writes the whole history, newest first, paging through it so memory use stays flat. */
+    static long writeTransactions(InventoryService service, Path file, ProgressListener progress) throws IOException {
+        long rows = 0;
+        try (Writer out = new Writer(file)) {
+            out.row(TRANSACTION_HEADER);
+            long cursor = Long.MAX_VALUE;
+            while (cursor >= 0) {
+                TransactionPage page = service.queryTransactions(TransactionQuery.all(), cursor, 4096);
+                for (Transaction t : page.items) {
+                    out.field(t.getTransactionId()).field(t.getProductId()).field(t.getType())
+                       .field(t.getQuantity()).field(t.getReason()).timestamp(t.getTimestamp()).endRow();
+                }
+                rows += page.items.size();
+                progress.progress(rows, -1);
+                cursor = page.nextCursor;
+            }
+            out.commit();
+        }
+        return rows;
+    }
+
+    static List<Product> readProducts(Path file, ProgressListener progress) throws IOException {
+        return read(file, PRODUCT_HEADER, progress, in -> {
+            String id = in.string(), name = in.string(), category = in.string();
+            double price = in.cents() / 100.0;
+            int qty = in.integer(), min = in.integer();
+            if (price < 0 || qty < 0 || min < 0) throw new ParseError("price and quantities must not be negative", in.pos);
+            return new Product(id, name, category, price, qty, min);
+        });
+    }
+
+    /** Transactions in file order; IDs and timestamps are kept as written. */
+    static List<Transaction> readTransactions(Path file, ProgressListener progress) throws IOException {
+        return read(file, TRANSACTION_HEADER, progress, in -> {
+            long seq = in.transactionId();
+            String productId = in.string();
+            TransactionType type = in.type();
+            int qty = in.integer();
+            String reason = in.string();
+            return new Transaction(seq, productId, type, qty, reason, in.timestamp());
+        });
+    }
+
+    private interface RowParser<T> { T parse(Reader in); }
+
+    private static <T> List<T> read(Path file, String header, ProgressListener progress, RowParser<T> parser) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("CSV files over 2 GB are not supported: " + file);
+            ByteBuffer data = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int start = skipHeader(data, header);
+            int[] bounds = chunkBounds(data, start);
+            AtomicLong done = new AtomicLong(start);
+            List<List<T>> parts;
+            try {
+                parts = java.util.stream.IntStream.range(0, bounds.length - 1).parallel()
+                        .mapToObj(i -> parseChunk(data, bounds[i], bounds[i + 1], parser, done, size, progress))
+                        .collect(java.util.stream.Collectors.toList());
+            } catch (ParseError e) {
+                throw new IOException(file.getFileName() + " line " + lineOf(data, e.offset) + ": " + e.getMessage());
+            }
+            List<T> rows = new ArrayList<>(parts.stream().mapToInt(List::size).sum());
+            parts.forEach(rows::addAll);
+            progress.progress(size, size);
+            return rows;
+        }
+    }
+
+    private static <T> List<T> parseChunk(ByteBuffer data, int from, int to, RowParser<T> parser,
+                                          AtomicLong done, long size, ProgressListener progress) {
+        Reader in = new Reader(data, from, to);
+        List<T> rows = new ArrayList<>();
+        int reported = from;
+        while (in.nextRow()) {
+            rows.add(parser.parse(in));
+            in.endRow();
+            if (rows.size() % PROGRESS_ROWS == 0) {
+                progress.progress(done.addAndGet(in.pos - reported), size);
+                reported = in.pos;
+            }
+        }
+        done.addAndGet(to - reported);
+        return rows;
+    }
+
+    private static int skipHeader(ByteBuffer data, String header) {
+        int n = Math.min(header.length(), data.limit());
+        for (int i = 0; i < n; i++) {
+            if (Character.toLowerCase((char) data.get(i)) != Character.toLowerCase(header.charAt(i))) return 0;
+        }
+        int i = n;
+        while (i < data.limit() && data.get(i) != '\n') i++;
+        return Math.min(i + 1, data.limit());
+    }
+
+    /** Chunk boundaries just after a newline that is outside quotes; one sequential pass over the bytes. */
+    private static int[] chunkBounds(ByteBuffer data, int start) {
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(start);
+        boolean quoted = false;
+        int next = start + CHUNK;
+        for (int i = start, end = data.limit(); i < end; i++) {
+            byte b = data.get(i);
+            if (b == '"') quoted = !quoted;
+            else if (b == '\n' && !quoted && i + 1 >= next && i + 1 < end) {
+                bounds.add(i + 1);
+                next = i + 1 + CHUNK;
+            }
+        }
+        bounds.add(data.limit());
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int lineOf(ByteBuffer data, int offset) {
+        int line = 1;
+        for (int i = 0; i < offset && i < data.limit(); i++) if (data.get(i) == '\n') line++;
+        return line;
+    }
+
+    private static final class ParseError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final int offset;
+        ParseError(String message, int offset) {
+            super(message, null, false, false);
+            this.offset = offset;
+        }
+    }
+
+    /** Cursor over one chunk of a mapped file; absolute reads so chunks can share the buffer. */
+    private static final class Reader {
+        private final ByteBuffer data;
+        private final int end;
+        private int pos;
+        private byte[] scratch = new byte[256];
+
+        Reader(ByteBuffer data, int from, int to) { this.data = data; this.pos = from; this.end = to; }
+
+        /** Skips blank lines; false at the end of the chunk. */
+        boolean nextRow() {
+            while (pos < end && (data.get(pos) == '\n' || data.get(pos) == '\r')) pos++;
+            return pos < end;
+        }
+
+        void endRow() {
+            if (pos < end && data.get(pos) == '\r') pos++;
+            if (pos < end && data.get(pos) != '\n') throw new ParseError("too many fields", pos);
+            pos++;
+        }
+
+        String string() {
+            int n = 0;
+            if (pos < end && data.get(pos) == '"') {
+                int i = pos + 1;
+                while (true) {
+                    if (i >= end) throw new ParseError("unterminated quoted field", pos);
+                    byte b = data.get(i++);
+                    if (b == '"') {
+                        if (i < end && data.get(i) == '"') i++;
+                        else break;
+                    }
+                    if (n == scratch.length) scratch = Arrays.copyOf(scratch, n * 2);
+                    scratch[n++] = b;
+                }
+                pos = i;
+            } else {
+                int i = pos;
+                while (i < end && !isDelimiter(data.get(i))) i++;
+                n = i - pos;
+                if (n > scratch.length) scratch = new byte[Math.max(n, scratch.length * 2)];
+                data.get(pos, scratch, 0, n);
+                pos = i;
+            }
+            separator();
+            return new String(scratch, 0, n, StandardCharsets.UTF_8);
+        }
+
+        int integer() {
+            long v = number();
+            if (v != (int) v) throw new ParseError("number out of range", pos);
+            separator();
+            return (int) v;
+        }
+
+        /** A decimal with up to two places (further places are rounded), as hundredths. */
+        long cents() {
+            boolean negative = pos < end && data.get(pos) == '-';
+            long v = number() * 100;
+            if (pos < end && data.get(pos) == '.') {
+                pos++;
+                long frac = 0;
+                int digits = 0;
+                while (pos < end && isDigit(data.get(pos))) {
+                    int d = data.get(pos++) - '0';
+                    if (digits < 2) frac = frac * 10 + d;
+                    else if (digits == 2 && d >= 5) frac++;
+                    digits++;
+                }
+                if (digits == 1) frac *= 10;
+                v = negative ? v - frac : v + frac;
+            }
+            separator();
+            return v;
+        }
+
+        long transactionId() {
+            if (end - pos < 4 || data.get(pos) != 'T' || data.get(pos + 1) != 'X' || data.get(pos + 2) != 'N') {
+                throw new ParseError("expected a transaction ID like TXN000123", pos);
+            }
+            pos += 3;
+            long v = number();
+            separator();
+            return v;
+        }
+
+        TransactionType type() {
+            int start = pos;
+            while (pos < end && !isDelimiter(data.get(pos))) pos++;
+            int len = pos - start;
+            TransactionType t = null;
+            if (len == 2 && upper(start) == 'I' && upper(start + 1) == 'N') t = TransactionType.IN;
+            else if (len == 3 && upper(start) == 'O' && upper(start + 1) == 'U' && upper(start + 2) == 'T') t = TransactionType.OUT;
+            if (t == null) throw new ParseError("type must be IN or OUT", start);
+            separator();
+            return t;
+        }
+
+        /** {@code yyyy-MM-ddTHH:mm:ss[.fraction]} in the local zone, as epoch millis. */
+        long timestamp() {
+            int start = pos;
+            try {
+                int year = digits(4); expect('-');
+                int month = digits(2); expect('-');
+                int day = digits(2); expect('T');
+                int hour = digits(2); expect(':');
+                int minute = digits(2); expect(':');
+                int second = digits(2);
+                int millis = 0;
+                if (pos < end && data.get(pos) == '.') {
+                    pos++;
+                    for (int scale = 100; pos < end && isDigit(data.get(pos)); scale /= 10) {
+                        millis += (data.get(pos++) - '0') * scale;
+                    }
+                }
+                separator();
+                return Transaction.toEpochMillis(LocalDateTime.of(year, month, day, hour, minute, second, millis * 1_000_000));
+            } catch (java.time.DateTimeException e) {
+                throw new ParseError("invalid timestamp: " + e.getMessage(), start);
+            }
+        }
+
+        private long number() {
+            int start = pos;
+            boolean negative = pos < end && data.get(pos) == '-';
+            if (negative) pos++;
+            long v = 0;
+            int digitsStart = pos;
+            while (pos < end && isDigit(data.get(pos))) {
+                if (v > (Long.MAX_VALUE - 9) / 10) throw new ParseError("number out of range", start);
+                v = v * 10 + (data.get(pos++) - '0');
+            }
+            if (pos == digitsStart) throw new ParseError("expected a number", start);
+            return negative ? -v : v;
+        }
+
+        private int digits(int count) {
+            int v = 0;
+            for (int i = 0; i < count; i++) {
+                if (pos >= end || !isDigit(data.get(pos))) throw new ParseError("invalid timestamp", pos);
+                v = v * 10 + (data.get(pos++) - '0');
+            }
+            return v;
+        }
+
+        private void expect(char c) {
+            if (pos >= end || data.get(pos) != c) throw new ParseError("invalid timestamp", pos);
+            pos++;
+        }
+
+        /** Consumes the comma after a field; a row end is left for {@link #endRow}. */
+        private void separator() {
+            if (pos < end && data.get(pos) == ',') pos++;
+            else if (pos < end && data.get(pos) != '\n' && data.get(pos) != '\r') throw new ParseError("unexpected character", pos);
+        }
+
+        private char upper(int i) { return Character.toUpperCase((char) data.get(i)); }
+        private static boolean isDigit(byte b) { return b >= '0' && b <= '9'; }
+        private static boolean isDelimiter(byte b) { return b == ',' || b == '\n' || b == '\r'; }
+    }
+
+    /** Buffered row writer; output goes to a temp file that {@link #commit} moves over the target. */
+    private static final class Writer implements Closeable {
+        private final Path file, tmp;
+        private final FileChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(1 << 16);
+        private boolean first = true, committed;
+
+        Writer(Path file) throws IOException {
+            this.file = file;
+            Path dir = file.toAbsolutePath().getParent();
+            this.tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            this.ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void row(String literal) throws IOException {
+            for (int i = 0; i < literal.length(); i++) put((byte) literal.charAt(i));
+            put((byte) '\n');
+        }
+
+        Writer field(String s) throws IOException {
+            comma();
+            boolean quote = false;
+            for (int i = 0; i < s.length() && !quote; i++) {
+                char c = s.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (quote) put((byte) '"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    if (c == '"') put((byte) '"');
+                    put((byte) c);
+                } else if (c < 0x800) {
+                    put((byte) (0xC0 | c >> 6));
+                    put((byte) (0x80 | c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    put((byte) (0xF0 | cp >> 18));
+                    put((byte) (0x80 | cp >> 12 & 0x3F));
+                    put((byte) (0x80 | cp >> 6 & 0x3F));
+                    put((byte) (0x80 | cp & 0x3F));
+                } else {
+                    if (Character.isSurrogate(c)) c = '?';
+                    put((byte) (0xE0 | c >> 12));
+                    put((byte) (0x80 | c >> 6 & 0x3F));
+                    put((byte) (0x80 | c & 0x3F));
+                }
+            }
+            if (quote) put((byte) '"');
+            return this;
+        }
+
+        Writer field(long v) throws IOException {
+            comma();
+            digits(v);
+            return this;
+        }
+
+        Writer cents(long v) throws IOException {
+            comma();
+            if (v < 0) {
+                put((byte) '-');
+                v = -v;
+            }
+            digits(v / 100);
+            put((byte) '.');
+            put((byte) ('0' + v % 100 / 10));
+            put((byte) ('0' + v % 10));
+            return this;
+        }
+
+        Writer timestamp(LocalDateTime t) throws IOException {
+            comma();
+            pad(t.getYear(), 4); put((byte) '-');
+            pad(t.getMonthValue(), 2); put((byte) '-');
+            pad(t.getDayOfMonth(), 2); put((byte) 'T');
+            pad(t.getHour(), 2); put((byte) ':');
+            pad(t.getMinute(), 2); put((byte) ':');
+            pad(t.getSecond(), 2);
+            int millis = t.getNano() / 1_000_000;
+            if (millis != 0) {
+                put((byte) '.');
+                pad(millis, 3);
+            }
+            return this;
+        }
+
+        void endRow() throws IOException {
+            put((byte) '\n');
+            first = true;
+        }
+
+        void commit() throws IOException {
+            drain();
+            ch.force(false);
+            ch.close();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override public void close() throws IOException {
+            if (committed) return;
+            ch.close();
+            Files.deleteIfExists(tmp);
+        }
+
+        private void comma() throws IOException {
+            if (!first) put((byte) ',');
+            first = false;
+        }
+
+        private void digits(long v) throws IOException {
+            if (v < 0) {
+                put((byte) '-');
+                v = -v;
+            }
+            long div = 1;
+            while (div <= v / 10) div *= 10;
+            for (; div > 0; div /= 10) put((byte) ('0' + v / div % 10));
+        }
+
+        private void pad(int v, int width) throws IOException {
+            int div = 1;
+            for (int i = 1; i < width; i++) div *= 10;
+            for (; div > 0; div /= 10) put((byte) ('0' + v / div % 10));
+        }
+
+        private void put(byte b) throws IOException {
+            if (!buf.hasRemaining()) drain();
+            buf.put(b);
+        }
+
+        private void drain() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+            buf.clear();
+        }
+    }
+}
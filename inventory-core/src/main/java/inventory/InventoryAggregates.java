@@ -0,0 +1,75 @@
+package inventory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running catalog totals, overall and per category, kept current by {@link InventoryService}: a product's
+ * contribution is retracted before it changes and included again afterwards, inside its stripe lock.
+ * Counters are {@link LongAdder}s so writers on different stripes don't contend, and value is summed in
+ * whole cents so the totals never drift from a full recompute.
+ */
+class InventoryAggregates {
+    private static final class Counters {
+        final LongAdder products = new LongAdder();
+        final LongAdder items = new LongAdder();
+        final LongAdder valueCents = new LongAdder();
+        final LongAdder lowStock = new LongAdder();
+
+        void add(Product p, int sign) {
+            products.add(sign);
+            items.add((long) sign * p.getQuantity());
+            valueCents.add(sign * valueCents(p));
+            if (p.isLowStock()) lowStock.add(sign);
+        }
+        InventoryTotals totals() {
+            return new InventoryTotals(products.sum(), items.sum(), valueCents.sum(), lowStock.sum());
+        }
+    }
+
+    private final Counters all = new Counters();
+    private final ConcurrentMap<String, Counters> byCategory = new ConcurrentHashMap<>();
+
+    void include(Product p) { add(p, 1); }
+    void retract(Product p) { add(p, -1); }
+
+    InventoryTotals totals() { return all.totals(); }
+
+    /** Totals per non-empty category, sorted by category name. */
+    Map<String, InventoryTotals> byCategory() {
+        Map<String, InventoryTotals> res = new TreeMap<>();
+        byCategory.forEach((c, counters) -> {
+            InventoryTotals t = counters.totals();
+            if (t.products != 0) res.put(c, t);
+        });
+        return res;
+    }
+
+    /** Recomputes totals from scratch; {@link InventoryService#verifyAggregates()} compares them with the running ones. */
+    static Map<String, InventoryTotals> recompute(Collection<Product> products, InventoryTotals[] overall) {
+        Counters sum = new Counters();
+        Map<String, Counters> cats = new HashMap<>();
+        for (Product p : products) {
+            sum.add(p, 1);
+            cats.computeIfAbsent(p.getCategory(), c -> new Counters()).add(p, 1);
+        }
+        overall[0] = sum.totals();
+        Map<String, InventoryTotals> res = new TreeMap<>();
+        cats.forEach((c, counters) -> res.put(c, counters.totals()));
+        return res;
+    }
+
+    static long valueCents(Product p) {
+        return Math.round(p.getPrice() * 100) * p.getQuantity();
+    }
+
+    private void add(Product p, int sign) {
+        all.add(p, sign);
+        byCategory.computeIfAbsent(p.getCategory(), c -> new Counters()).add(p, sign);
+    }
+}
@@ -0,0 +1,20 @@
+package inventory;
+
+/** One committed change to a product, as published by {@link InventoryService}. */
+public final class InventoryEvent {
+    final InventoryEventType type;
+    final String productId;
+    final int quantity;     // on hand after the change; 0 for PRODUCT_DELETED
+    final int delta;        // signed quantity change for STOCK_MOVED and QUANTITY_SET, otherwise 0
+    final long timestamp;
+
+    InventoryEvent(InventoryEventType type, String productId, int quantity, int delta, long timestamp) {
+        this.type = type; this.productId = productId; this.quantity = quantity; this.delta = delta; this.timestamp = timestamp;
+    }
+    public InventoryEventType getType() { return type; }
+    public String getProductId() { return productId; }
+    public int getQuantity() { return quantity; }
+    public int getDelta() { return delta; }
+    public long getTimestamp() { return timestamp; }
+    @Override public String toString() { return type + " " + productId + " qty=" + quantity + (delta != 0 ? " delta=" + delta : ""); }
+}
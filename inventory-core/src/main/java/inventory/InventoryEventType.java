@@ -0,0 +1,11 @@
+package inventory;
+
+public enum InventoryEventType {
+    PRODUCT_ADDED, PRODUCT_UPDATED, PRODUCT_DELETED, STOCK_MOVED,
+    /** Manual correction through setQuantity; not a movement, so it does not count as demand. */
+    QUANTITY_SET,
+    /** Quantity fell to or below the minimum stock level. */
+    LOW_STOCK_ENTERED,
+    /** Quantity rose back above the minimum stock level. */
+    LOW_STOCK_CLEARED
+}
@@ -0,0 +1,465 @@
+package inventory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local HTTP/JSON API over an {@link InventoryService}, on the JDK's built-in server (HTTP/1.1 with
+ * keep-alive). Requests run on a fixed pool of platform threads, as Java 17 has no virtual threads;
+ * size it above the number of clients that may wait on a synchronous journal commit at once. Large
+ * listings and reports are streamed with chunked encoding as they are written. When a token is set,
+ * every request needs {@code Authorization: Bearer <token>}.
+ * <pre>
+ * GET    /products[?q=prefix|category=name][&amp;limit=n]   listing (whole catalog: a point-in-time view)
+ * GET    /products/{id}                                  one product with its stock per location
+ * GET    /products/{id}/history?at=|from=&amp;to=            quantity at a time, or closing stock per day
+ * POST   /products                                       add {productId,name,category,price,quantity,minStockLevel}
+ * PUT    /products/{id}                                  update {name,category,price,minStockLevel[,quantity]}
+ * DELETE /products/{id}
+ * POST   /products/{id}/stock                            {type:IN|OUT,quantity[,location][,reason]}
+ * POST   /movements                                      [{productId,type,quantity[,location][,reason]},...], all or nothing
+ * GET    /transactions[?limit=n]                         most recent, oldest first
+ * GET    /summary, /locations, /metrics
+ * GET    /reports/{summary|productListing|valueByCategory} text/plain
+ * </pre>
+ */
+final class InventoryHttpServer implements AutoCloseable {
+    private static final int MAX_BODY = 16 << 20;
+    private static final String JSON = "application/json; charset=utf-8";
+
+    /** One route; may throw IllegalArgumentException (400) or NoSuchElementException (404). */
+    private interface Route {
+        void handle(HttpExchange x, String[] path) throws IOException;
+    }
+
+    private final InventoryService service;
+    private final String token;
+    private final HttpServer server;
+    private final ExecutorService workers;
+
+    private InventoryHttpServer(InventoryService service, InetSocketAddress address, int threads, String token) throws IOException {
+        this.service = service;
+        this.token = token;
+        this.server = HttpServer.create(address, 1024);
+        AtomicLong n = new AtomicLong();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "inventory-http-" + n.incrementAndGet());
+            t.setDaemon(false);
+            return t;
+        });
+        server.setExecutor(workers);
+        context("/products", this::products);
+        context("/movements", this::movements);
+        context("/transactions", this::transactions);
+        context("/summary", this::summary);
+        context("/locations", this::locations);
+        context("/metrics", this::metrics);
+        context("/reports", this::report);
+    }
+
+    static InventoryHttpServer start(InventoryService service, InetSocketAddress address, int threads, String token) throws IOException {
+        // the server writes headers and body separately; with Nagle on, every keep-alive response after
+        // the first waits ~40ms for the client's delayed ACK. Read once, when the first server is built.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) System.setProperty("sun.net.httpserver.nodelay", "true");
+        InventoryHttpServer s = new InventoryHttpServer(service, address, threads, token);
+        s.server.start();
+        return s;
+    }
+
+    InetSocketAddress getAddress() { return server.getAddress(); }
+
+    @Override public void close() {
+        server.stop(0);
+        workers.shutdown();
+    }
+
+    private void context(String prefix, Route route) {
+        OperationMetrics timer = service.getMetrics().operation("http" + prefix);
+        server.createContext(prefix, x -> {
+            long start = System.nanoTime();
+            try {
+                if (token != null && !("Bearer " + token).equals(x.getRequestHeaders().getFirst("Authorization"))) {
+                    error(x, 401, "Missing or wrong bearer token");
+                    return;
+                }
+                String[] path = x.getRequestURI().getPath().substring(1).split("/");
+                route.handle(x, path);
+            } catch (IllegalArgumentException e) {
+                error(x, 400, e.getMessage());
+            } catch (NoSuchElementException e) {
+                error(x, 404, e.getMessage());
+            } catch (IOException e) {
+                // client went away mid-response; nothing to report back
+            } catch (RuntimeException e) {
+                error(x, 500, String.valueOf(e));
+            } finally {
+                x.close();
+                timer.recordSince(start);
+            }
+        });
+    }
+
+    /* ----- routes ----- */
+
+    private void products(HttpExchange x, String[] path) throws IOException {
+        String method = x.getRequestMethod();
+        if (path.length == 1) {
+            if (method.equals("GET")) listProducts(x);
+            else if (method.equals("POST")) addProduct(x);
+            else notAllowed(x);
+            return;
+        }
+        String id = path[1];
+        if (path.length == 3 && path[2].equals("stock")) {
+            if (!method.equals("POST")) { notAllowed(x); return; }
+            Map<String, Object> body = object(readBody(x));
+            StockMovement m = movement(id, body);
+            StockResult r = service.moveStock(m);
+            int status = r == StockResult.OK ? 200 : r == StockResult.PRODUCT_NOT_FOUND ? 404
+                    : r == StockResult.INVALID_QUANTITY ? 400 : 409;
+            respond(x, status, w -> w.beginObject().field("result", r.name()).field("message", r.getMessage())
+                    .field("quantity", quantityOf(id)).endObject());
+            return;
+        }
+        if (path.length == 3 && path[2].equals("history")) {
+            if (!method.equals("GET")) { notAllowed(x); return; }
+            history(x, id);
+            return;
+        }
+        if (path.length != 2) throw new NoSuchElementException("No such resource");
+        switch (method) {
+            case "GET": {
+                Product p = service.getProduct(id);
+                if (p == null) throw new NoSuchElementException("Product not found");
+                List<StockLevel> levels = service.getStockLevels(id);
+                respond(x, 200, w -> {
+                    product(w, p).name("locations").beginArray();
+                    for (StockLevel l : levels) {
+                        w.beginObject().field("location", l.getLocation()).field("quantity", l.getQuantity())
+                                .field("minStockLevel", l.getMinStockLevel()).endObject();
+                    }
+                    w.endArray().endObject();
+                });
+                break;
+            }
+            case "PUT": {
+                Map<String, Object> b = object(readBody(x));
+                Product p = service.getProduct(id);
+                if (p == null) throw new NoSuchElementException("Product not found");
+                // check the whole body before changing anything, so a bad field leaves the product as it was
+                String name = str(b, "name", p.getName()), category = str(b, "category", p.getCategory());
+                double price = num(b, "price", p.getPrice());
+                int minStock = integer(b, "minStockLevel", p.getMinStockLevel());
+                Integer qty = b.get("quantity") == null ? null : integer(b, "quantity", 0);
+                if (!(price >= 0) || Double.isInfinite(price)) throw new IllegalArgumentException("price cannot be negative");
+                if (minStock < 0) throw new IllegalArgumentException("minStockLevel cannot be negative");
+                if (qty != null && qty < 0) throw new IllegalArgumentException("quantity cannot be negative");
+                // the quantity goes first: it is the one change the service may still refuse (stock held elsewhere)
+                boolean ok = qty == null || service.setQuantity(id, qty);
+                if (ok) ok = service.updateProduct(id, name, category, price, minStock);
+                if (!ok) throw new NoSuchElementException("Product not found");
+                Product updated = service.getProduct(id);
+                respond(x, 200, w -> product(w, updated).endObject());
+                break;
+            }
+            case "DELETE":
+                if (!service.deleteProduct(id)) throw new NoSuchElementException("Product not found");
+                x.sendResponseHeaders(204, -1);
+                break;
+            default:
+                notAllowed(x);
+        }
+    }
+
+    /** {@code ?at=2026-09-30T23:59} for one point in time, or {@code ?from=2026-09-01&to=2026-09-30} for daily closings. */
+    private void history(HttpExchange x, String id) throws IOException {
+        Map<String, String> q = query(x);
+        try {
+            if (q.containsKey("at")) {
+                LocalDateTime at = LocalDateTime.parse(q.get("at"));
+                Integer qty = service.getQuantityAt(id, at);
+                respond(x, 200, w -> {
+                    w.beginObject().field("productId", id).field("at", at.toString()).name("quantity");
+                    if (qty == null) w.value((String) null); else w.value(qty);
+                    w.endObject();
+                });
+                return;
+            }
+            if (!q.containsKey("from") || !q.containsKey("to")) throw new IllegalArgumentException("Pass at=, or from= and to=");
+            LocalDate from = LocalDate.parse(q.get("from")), to = LocalDate.parse(q.get("to"));
+            if (ChronoUnit.DAYS.between(from, to) > 3660) throw new IllegalArgumentException("At most ten years per request");
+            SortedMap<LocalDate, Integer> closing = service.getDailyClosingStock(id, from, to);
+            respond(x, 200, w -> {
+                w.beginObject().field("productId", id).name("closing").beginObject();
+                for (Map.Entry<LocalDate, Integer> e : closing.entrySet()) w.field(e.getKey().toString(), e.getValue());
+                w.endObject().endObject();
+            });
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Bad date: " + e.getParsedString());
+        }
+    }
+
+    private void listProducts(HttpExchange x) throws IOException {
+        Map<String, String> q = query(x);
+        int limit = q.containsKey("limit") ? Integer.parseInt(q.get("limit")) : Integer.MAX_VALUE;
+        if (q.containsKey("q")) {
+            writeProducts(x, service.searchProducts(q.get("q"), Math.min(limit, 100_000)), limit);
+        } else if (q.containsKey("category")) {
+            writeProducts(x, service.getProductsByCategory(q.get("category")), limit);
+        } else {
+            try (InventoryView view = service.openView()) {
+                writeProducts(x, view.getProducts(), limit);
+            }
+        }
+    }
+
+    private void writeProducts(HttpExchange x, List<Product> products, int limit) throws IOException {
+        stream(x, JSON, out -> {
+            JsonWriter w = new JsonWriter(out).beginArray();
+            int n = 0;
+            for (Product p : products) {
+                if (n++ >= limit) break;
+                product(w, p).endObject();
+            }
+            w.endArray();
+        });
+    }
+
+    private void addProduct(HttpExchange x) throws IOException {
+        Map<String, Object> b = object(readBody(x));
+        String id = str(b, "productId", null);
+        if (id == null || id.isBlank()) throw new IllegalArgumentException("productId is required");
+        Product p = new Product(id.trim(), str(b, "name", ""), str(b, "category", ""), num(b, "price", 0),
+                integer(b, "quantity", 0), integer(b, "minStockLevel", 0));
+        if (!service.addProduct(p)) {
+            error(x, 409, "Product " + p.getProductId() + " already exists");
+            return;
+        }
+        respond(x, 201, w -> product(w, p).endObject());
+    }
+
+    private void movements(HttpExchange x, String[] path) throws IOException {
+        if (!x.getRequestMethod().equals("POST")) { notAllowed(x); return; }
+        Object body = JsonReader.parse(readBody(x));
+        if (!(body instanceof List)) throw new IllegalArgumentException("Expected an array of movements");
+        List<StockMovement> movements = new ArrayList<>();
+        for (Object o : (List<?>) body) {
+            if (!(o instanceof Map)) throw new IllegalArgumentException("Expected movement objects");
+            @SuppressWarnings("unchecked") Map<String, Object> m = (Map<String, Object>) o;
+            movements.add(movement(str(m, "productId", ""), m));
+        }
+        BatchResult r = service.applyBatch(movements);
+        respond(x, r.isApplied() ? 200 : 409, w -> {
+            w.beginObject().field("applied", r.isApplied()).field("size", r.size());
+            if (r.isApplied()) {
+                w.name("affectedProducts").beginArray();
+                for (String id : r.getAffectedProducts()) w.value(id);
+            } else {
+                w.name("failures").beginArray();
+                for (Map.Entry<Integer, StockResult> f : r.getFailures().entrySet()) {
+                    w.beginObject().field("index", f.getKey()).field("result", f.getValue().name()).endObject();
+                }
+            }
+            w.endArray().endObject();
+        });
+    }
+
+    private void transactions(HttpExchange x, String[] path) throws IOException {
+        if (!x.getRequestMethod().equals("GET")) { notAllowed(x); return; }
+        String limit = query(x).get("limit");
+        List<Transaction> txns = service.getRecentTransactions(limit == null ? 50 : Integer.parseInt(limit));
+        stream(x, JSON, out -> {
+            JsonWriter w = new JsonWriter(out).beginArray();
+            for (Transaction t : txns) {
+                w.beginObject().field("transactionId", t.getTransactionId()).field("productId", t.getProductId())
+                        .field("type", t.getType()).field("quantity", t.getQuantity())
+                        .field("reason", t.getReason()).field("timestamp", t.getEpochMillis()).endObject();
+            }
+            w.endArray();
+        });
+    }
+
+    private void summary(HttpExchange x, String[] path) throws IOException {
+        if (!x.getRequestMethod().equals("GET")) { notAllowed(x); return; }
+        InventoryTotals t = service.getSummary();
+        Map<String, InventoryTotals> categories = service.getCategorySummaries();
+        respond(x, 200, w -> {
+            totals(w.beginObject(), t).name("categories").beginObject();
+            for (Map.Entry<String, InventoryTotals> e : categories.entrySet()) totals(w.name(e.getKey()).beginObject(), e.getValue()).endObject();
+            w.endObject().endObject();
+        });
+    }
+
+    private void locations(HttpExchange x, String[] path) throws IOException {
+        if (!x.getRequestMethod().equals("GET")) { notAllowed(x); return; }
+        Map<String, InventoryTotals> sites = service.getLocationSummaries();
+        respond(x, 200, w -> {
+            w.beginObject();
+            for (Map.Entry<String, InventoryTotals> e : sites.entrySet()) totals(w.name(e.getKey()).beginObject(), e.getValue()).endObject();
+            w.endObject();
+        });
+    }
+
+    private void metrics(HttpExchange x, String[] path) throws IOException {
+        if (!x.getRequestMethod().equals("GET")) { notAllowed(x); return; }
+        List<OperationSnapshot> ops = service.getMetrics().snapshot();
+        respond(x, 200, w -> {
+            w.beginArray();
+            for (OperationSnapshot s : ops) {
+                w.beginObject().field("operation", s.getName()).field("count", s.getCount()).field("meanNanos", s.getMean())
+                        .field("p50Nanos", s.getP50()).field("p99Nanos", s.getP99()).field("p999Nanos", s.getP999())
+                        .field("maxNanos", s.getMax()).endObject();
+            }
+            w.endArray();
+        });
+    }
+
+    private void report(HttpExchange x, String[] path) throws IOException {
+        if (!x.getRequestMethod().equals("GET")) { notAllowed(x); return; }
+        if (path.length != 2) throw new NoSuchElementException("No such report");
+        ReportText text = new ReportText();
+        switch (path[1]) {
+            case "summary": InventoryReports.summary(service, text); break;
+            case "productListing": InventoryReports.productListing(service, text); break;
+            case "valueByCategory": InventoryReports.valueByCategory(service, text); break;
+            default: throw new NoSuchElementException("No such report");
+        }
+        stream(x, "text/plain; charset=utf-8", out -> {
+            for (int i = 0, n = text.lineCount(); i < n; i++) {
+                out.write(text.line(i));
+                out.write('\n');
+            }
+        });
+    }
+
+    /* ----- helpers ----- */
+
+    private interface Body {
+        void write(Writer out) throws IOException;
+    }
+    private interface JsonBody {
+        void write(JsonWriter w) throws IOException;
+    }
+
+    private static JsonWriter product(JsonWriter w, Product p) throws IOException {
+        return w.beginObject().field("productId", p.getProductId()).field("name", p.getName())
+                .field("category", p.getCategory()).field("price", p.getPrice()).field("quantity", p.getQuantity())
+                .field("minStockLevel", p.getMinStockLevel()).field("lowStock", p.isLowStock());
+    }
+
+    private static JsonWriter totals(JsonWriter w, InventoryTotals t) throws IOException {
+        return w.field("products", t.getProductCount()).field("items", t.getTotalItems())
+                .field("value", t.getTotalValue()).field("lowStock", t.getLowStockCount());
+    }
+
+    private int quantityOf(String id) {
+        Product p = service.getProduct(id);
+        return p == null ? 0 : p.getQuantity();
+    }
+
+    private static StockMovement movement(String productId, Map<String, Object> m) {
+        String type = str(m, "type", "");
+        if (!type.equals("IN") && !type.equals("OUT")) throw new IllegalArgumentException("type must be IN or OUT");
+        return new StockMovement(productId, str(m, "location", null), TransactionType.valueOf(type),
+                integer(m, "quantity", 0), str(m, "reason", null));
+    }
+
+    /** Small responses are buffered so they go out with a Content-Length. */
+    private static void respond(HttpExchange x, int status, JsonBody body) throws IOException {
+        StringWriter sw = new StringWriter(256);
+        body.write(new JsonWriter(sw));
+        byte[] bytes = sw.toString().getBytes(StandardCharsets.UTF_8);
+        x.getResponseHeaders().set("Content-Type", JSON);
+        x.sendResponseHeaders(status, bytes.length);
+        x.getResponseBody().write(bytes);
+    }
+
+    /** Large responses are chunked and written as they are produced. */
+    private static void stream(HttpExchange x, String contentType, Body body) throws IOException {
+        x.getResponseHeaders().set("Content-Type", contentType);
+        x.sendResponseHeaders(200, 0);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(x.getResponseBody(), StandardCharsets.UTF_8), 1 << 16)) {
+            body.write(out);
+        }
+    }
+
+    private static void error(HttpExchange x, int status, String message) {
+        try {
+            respond(x, status, w -> w.beginObject().field("error", message).endObject());
+        } catch (IOException | IllegalStateException ignored) {
+            // headers already sent, or the client is gone
+        }
+    }
+
+    private static void notAllowed(HttpExchange x) throws IOException {
+        error(x, 405, x.getRequestMethod() + " not allowed here");
+    }
+
+    private static String readBody(HttpExchange x) throws IOException {
+        byte[] bytes = x.getRequestBody().readNBytes(MAX_BODY + 1);
+        if (bytes.length > MAX_BODY) throw new IllegalArgumentException("Request body over " + MAX_BODY + " bytes");
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(String json) {
+        Object o = JsonReader.parse(json);
+        if (!(o instanceof Map)) throw new IllegalArgumentException("Expected a JSON object");
+        return (Map<String, Object>) o;
+    }
+
+    private static String str(Map<String, Object> m, String key, String dflt) {
+        Object v = m.get(key);
+        return v == null ? dflt : v.toString();
+    }
+
+    private static double num(Map<String, Object> m, String key, double dflt) {
+        Object v = m.get(key);
+        if (v == null) return dflt;
+        if (!(v instanceof Number)) throw new IllegalArgumentException(key + " must be a number");
+        return ((Number) v).doubleValue();
+    }
+
+    /** A whole number that fits an int; fractions and out-of-range values are rejected, never truncated. */
+    private static int integer(Map<String, Object> m, String key, int dflt) {
+        double v = num(m, key, dflt);
+        if (v != Math.rint(v) || v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(key + " must be an integer");
+        }
+        return (int) v;
+    }
+
+    private static Map<String, String> query(HttpExchange x) {
+        Map<String, String> q = new HashMap<>();
+        String raw = x.getRequestURI().getRawQuery();
+        if (raw == null) return q;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) continue;
+            q.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return q;
+    }
+}
@@ -0,0 +1,9 @@
+package inventory;
+
+import java.util.List;
+
+/** Receives events in publish order, in batches, on the bus's dispatcher thread. */
+@FunctionalInterface
+public interface InventoryListener {
+    void onChanges(List<InventoryEvent> events);
+}
@@ -0,0 +1,178 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Reports shown on the Reports tab. Each reads one {@link InventoryView}, so its totals and rows agree with
+ * each other however busy writers are, and renders into a {@link ReportText} as it goes, so a viewer can
+ * show the first page while the rest is still being written. Grouped reports aggregate the catalog with a
+ * fork/join task over the view's products.
+ */
+public final class InventoryReports {
+    /** Products per fork/join leaf; below this, splitting costs more than it saves. */
+    private static final int GROUP_LEAF = 8192;
+
+    private InventoryReports() {}
+
+    static void summary(InventoryService service, ReportText out) {
+        long start = System.nanoTime();
+        try (InventoryView view = service.openView()) {
+            summary(view, new ReportWriter(out));
+        }
+        service.summaryReportTimer.recordSince(start);
+    }
+
+    private static void summary(InventoryView view, ReportWriter w) {
+        w.line("=== INVENTORY SUMMARY ===");
+        InventoryTotals totals = view.getSummary();
+        w.text("Total Products: ").number(totals.getProductCount()).endLine();
+        w.text("Total Items: ").number(totals.getTotalItems()).endLine();
+        w.text("Total Inventory Value: $").money(totals.valueCents).endLine();
+        w.text("Low Stock Items: ").number(totals.getLowStockCount()).endLine();
+        w.endLine();
+        w.line("By Category:");
+        view.getCategorySummaries().forEach((c, t) -> w.text("- ").text(c).text(": ")
+                .number(t.getProductCount()).text(" products, ").number(t.getTotalItems()).text(" items, $")
+                .money(t.valueCents).text(", ").number(t.getLowStockCount()).text(" low").endLine());
+        w.endLine();
+        List<Product> low = view.getLowStockProducts();
+        if (!low.isEmpty()) {
+            w.line("Low Stock Products:");
+            for (Product p : low) {
+                w.text("- ").text(p.getName()).text(" (").text(p.getProductId()).text("): ").number(p.getQuantity())
+                 .text(" remaining (min ").number(p.getMinStockLevel()).text(")").endLine();
+            }
+        }
+        w.finish();
+    }
+
+    static void productListing(InventoryService service, ReportText out) {
+        long start = System.nanoTime();
+        ReportWriter w = new ReportWriter(out);
+        w.line("=== PRODUCT LIST ===");
+        List<Product> products;
+        try (InventoryView view = service.openView()) {
+            products = view.getProducts();
+        }
+        for (Product p : products) {
+            w.text(p.getProductId()).text(" | ").text(p.getName()).text(" | ").text(p.getCategory())
+             .text(" | $").money(Math.round(p.getPrice() * 100)).text(" | Q=").number(p.getQuantity())
+             .text(" | Min=").number(p.getMinStockLevel()).text(" | ").text(p.isLowStock() ? "LOW" : "OK").endLine();
+        }
+        w.finish();
+        service.productListingTimer.recordSince(start);
+    }
+
+    /** Products, items, value and low-stock count per category, largest value first, with each category's share. */
+    static void valueByCategory(InventoryService service, ReportText out) {
+        long start = System.nanoTime();
+        Map<String, InventoryTotals> groups;
+        try (InventoryView view = service.openView()) {
+            groups = view.getCategorySummaries();
+        }
+        List<Map.Entry<String, InventoryTotals>> rows = new ArrayList<>(groups.entrySet());
+        rows.sort((a, b) -> Long.compare(b.getValue().valueCents, a.getValue().valueCents));
+        long products = 0, items = 0, value = 0, low = 0;
+        int width = "Category".length();
+        for (Map.Entry<String, InventoryTotals> e : rows) {
+            InventoryTotals t = e.getValue();
+            products += t.products; items += t.items; value += t.valueCents; low += t.lowStock;
+            width = Math.max(width, e.getKey().length());
+        }
+        ReportWriter w = new ReportWriter(out);
+        w.line("=== VALUE BY CATEGORY ===");
+        w.text("Category").padTo(width);
+        for (String h : new String[] {"Products", "Items", "Value", "Share", "Low"}) {
+            int m = w.mark();
+            w.text(h).alignRight(m, h.equals("Value") ? 18 : 12);
+        }
+        w.endLine();
+        for (Map.Entry<String, InventoryTotals> e : rows) {
+            groupRow(w, e.getKey(), width, e.getValue(), value);
+        }
+        groupRow(w, "TOTAL", width, new InventoryTotals(products, items, value, low), value);
+        w.finish();
+        service.valueByCategoryTimer.recordSince(start);
+    }
+
+    private static void groupRow(ReportWriter w, String name, int width, InventoryTotals t, long totalValue) {
+        w.text(name).padTo(width);
+        int m = w.mark();
+        w.number(t.products).alignRight(m, 12);
+        m = w.mark();
+        w.number(t.items).alignRight(m, 12);
+        m = w.mark();
+        w.money(t.valueCents).alignRight(m, 18);
+        m = w.mark();
+        w.percent(t.valueCents, totalValue).alignRight(m, 12);
+        m = w.mark();
+        w.number(t.lowStock).alignRight(m, 12);
+        w.endLine();
+    }
+
+    /**
+     * Totals of {@code products} grouped by {@code key}, sorted by key. The products are copied to an array
+     * and summed by a fork/join task on the common pool; each leaf fills its own map, so there is no
+     * shared state to contend on until the merge.
+     */
+    static Map<String, InventoryTotals> groupBy(Collection<Product> products, Function<Product, String> key) {
+        Product[] all = products.toArray(new Product[0]);
+        Map<String, long[]> sums = ForkJoinPool.commonPool().invoke(new GroupTask(all, 0, all.length, key));
+        Map<String, InventoryTotals> res = new TreeMap<>();
+        sums.forEach((k, s) -> res.put(k, new InventoryTotals(s[0], s[1], s[2], s[3])));
+        return res;
+    }
+
+    /** Sums {products, items, valueCents, lowStock} per group for a slice of the product array. */
+    private static final class GroupTask extends RecursiveTask<Map<String, long[]>> {
+        private static final long serialVersionUID = 1L;
+        private final Product[] products;
+        private final int from, to;
+        private final Function<Product, String> key;
+
+        GroupTask(Product[] products, int from, int to, Function<Product, String> key) {
+            this.products = products; this.from = from; this.to = to; this.key = key;
+        }
+
+        @Override protected Map<String, long[]> compute() {
+            if (to - from <= GROUP_LEAF) {
+                Map<String, long[]> sums = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    Product p = products[i];
+                    long[] s = sums.computeIfAbsent(key.apply(p), k -> new long[4]);
+                    s[0]++;
+                    s[1] += p.getQuantity();
+                    s[2] += InventoryAggregates.valueCents(p);
+                    if (p.isLowStock()) s[3]++;
+                }
+                return sums;
+            }
+            int mid = (from + to) >>> 1;
+            GroupTask left = new GroupTask(products, from, mid, key);
+            left.fork();
+            Map<String, long[]> right = new GroupTask(products, mid, to, key).compute();
+            Map<String, long[]> merged = left.join();
+            if (merged.size() < right.size()) {
+                Map<String, long[]> t = merged;
+                merged = right;
+                right = t;
+            }
+            for (Map.Entry<String, long[]> e : right.entrySet()) {
+                long[] s = merged.putIfAbsent(e.getKey(), e.getValue());
+                if (s != null) {
+                    long[] r = e.getValue();
+                    for (int j = 0; j < 4; j++) s[j] += r[j];
+                }
+            }
+            return merged;
+        }
+    }
+}
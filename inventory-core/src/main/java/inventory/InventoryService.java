@@ -0,0 +1,934 @@
+package inventory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe inventory store. Reads are lock-free; every mutation of a product runs under the
+ * stripe lock for its ID, so check-then-act sequences such as removeStock never oversell and
+ * writers to different products proceed in parallel.
+ * <p>
+ * When opened over a data directory every mutation is also appended to a {@link TransactionJournal}
+ * inside the same stripe lock (so per-product journal order matches apply order) and committed after
+ * the lock is released, letting concurrent writers share one disk sync. Periodic {@link #snapshot()}s
+ * bound startup to loading the latest image plus the journal written since.
+ */
+public class InventoryService implements Closeable {
+    private static final int STRIPES = Integer.highestOneBit(Math.max(16, Runtime.getRuntime().availableProcessors() * 4));
+
+    private final ConcurrentMap<String, Product> inventory = new ConcurrentHashMap<>();
+    private final TransactionHistory history;
+    private long[] recoveredSequences; // during recovery: sorted, already archived, so replay must not add them again
+    private final AtomicLong txnCounter = new AtomicLong(1);
+    private final ProductIndex index = new ProductIndex();
+    private final InventoryAggregates aggregates = new InventoryAggregates();
+    private final Object[] stripes = newStripes();
+    private final ProductVersions versions = new ProductVersions(inventory, this::lockFor);
+    private final LocationStore locations = new LocationStore();
+    private final ConcurrentMap<String, StockTimeline> timelines = new ConcurrentHashMap<>();
+    private final TimelineArchive timelineArchive; // null when running in-memory only
+    private final TransactionJournal journal; // null when running in-memory only
+    private final SnapshotStore snapshots;
+    private final Path archiveDir;
+    private final Object snapshotLock = new Object();
+    private ScheduledExecutorService snapshotter;
+    private volatile boolean verifyAggregates = Boolean.getBoolean("inventory.verifyAggregates");
+    private final ChangeBus events = new ChangeBus(1 << 16); // published under stripe locks, flushed after them
+    private LowStockAlerts alerts;
+    private final Metrics metrics = new Metrics();
+    private final OperationMetrics addProductTimer = metrics.operation("addProduct");
+    private final OperationMetrics updateProductTimer = metrics.operation("updateProduct");
+    private final OperationMetrics setQuantityTimer = metrics.operation("setQuantity");
+    private final OperationMetrics deleteProductTimer = metrics.operation("deleteProduct");
+    private final OperationMetrics addStockTimer = metrics.operation("addStock");
+    private final OperationMetrics removeStockTimer = metrics.operation("removeStock");
+    private final OperationMetrics applyBatchTimer = metrics.operation("applyBatch");
+    private final OperationMetrics locationSummaryTimer = metrics.operation("locationSummaries");
+    private final OperationMetrics quantityAtTimer = metrics.operation("quantityAt");
+    private final OperationMetrics dailyClosingTimer = metrics.operation("dailyClosingStock");
+    private final OperationMetrics lowStockTimer = metrics.operation("getLowStockProducts");
+    private final OperationMetrics searchTimer = metrics.operation("searchProducts");
+    private final OperationMetrics recentTransactionsTimer = metrics.operation("getRecentTransactions");
+    private final OperationMetrics queryTransactionsTimer = metrics.operation("queryTransactions");
+    private final OperationMetrics summaryTimer = metrics.operation("getSummary");
+    private final OperationMetrics snapshotTimer = metrics.operation("snapshot");
+    // recorded by InventoryReports, which has no state of its own
+    final OperationMetrics summaryReportTimer = metrics.operation("report.summary");
+    final OperationMetrics productListingTimer = metrics.operation("report.productListing");
+    final OperationMetrics valueByCategoryTimer = metrics.operation("report.valueByCategory");
+
+    /** In-memory service with the demo catalog. */
+    public InventoryService() {
+        this(true);
+    }
+    private InventoryService(boolean demoData) {
+        this.history = new TransactionHistory(historyCapacity());
+        this.timelineArchive = null;
+        this.journal = null;
+        this.snapshots = null;
+        this.archiveDir = null;
+        if (demoData) seedDemoData();
+    }
+    /** In-memory service with an empty catalog. */
+    static InventoryService empty() {
+        return new InventoryService(false);
+    }
+    private InventoryService(Path dataDir, boolean syncCommit) throws IOException {
+        Files.createDirectories(dataDir);
+        this.snapshots = new SnapshotStore(dataDir);
+        this.archiveDir = dataDir.resolve("archive");
+        SnapshotStore.Snapshot snap = snapshots.loadLatest();
+        this.history = new TransactionHistory(historyCapacity(), TransactionArchive.open(dataDir.resolve("history.bin")));
+        recoveredSequences = history.archivedSequences(snap == null ? 0 : snap.historyMark);
+        this.timelineArchive = TimelineArchive.open(dataDir.resolve("timelines.bin"), snap == null ? 0 : snap.timelineLength);
+        long replayFrom = 0;
+        if (snap != null) {
+            for (Product p : snap.products) {
+                inventory.put(p.getProductId(), p);
+                index.add(p);
+                aggregates.include(p);
+            }
+            for (StockLevel l : snap.levels) {
+                locations.set(l.getProductId(), l.getLocation(), l.getQuantity());
+                locations.setMinStock(l.getProductId(), l.getLocation(), l.getMinStockLevel());
+            }
+            snap.timelines.forEach((id, image) -> timelines.put(id, StockTimeline.of(image, timelineArchive)));
+            // older snapshots carry no history: it starts at the snapshot
+            for (Product p : snap.products) {
+                if (!snap.timelines.containsKey(p.getProductId())) trace(p.getProductId(), snap.takenAt, p.getQuantity());
+            }
+            txnCounter.set(snap.nextTxnSeq);
+            replayFrom = snap.startLsn;
+        }
+        this.journal = TransactionJournal.open(dataDir, syncCommit, replayFrom, this::apply);
+        recoveredSequences = null;
+        long lastArchived = history.maxArchivedSequence(); // imported transactions are in no journal record
+        if (lastArchived >= txnCounter.get()) txnCounter.set(lastArchived + 1);
+        versions.recovered(inventory.values());
+        if (journal.lastLsn() == 0 && inventory.isEmpty()) seedDemoData();
+    }
+
+    /**
+     * Opens a persistent service over {@code dataDir}: loads the latest snapshot, if any, and replays
+     * the journal written after it.
+     */
+    public static InventoryService open(Path dataDir, boolean syncCommit) throws IOException {
+        return new InventoryService(dataDir, syncCommit);
+    }
+
+    private void seedDemoData() {
+        addProduct(new Product("P001", "Laptop", "Electronics", 999.99, 15, 5));
+        addProduct(new Product("P002", "Mouse", "Electronics", 29.99, 50, 10));
+        addProduct(new Product("P003", "Keyboard", "Electronics", 79.99, 30, 8));
+        addProduct(new Product("P004", "Monitor", "Electronics", 299.99, 12, 5));
+        addProduct(new Product("P005", "Office Chair", "Furniture", 199.99, 8, 3));
+    }
+    /** The live products, changing as they are read; use {@link #openView()} for a consistent image. */
+    public Collection<Product> getAllProducts() { return inventory.values(); }
+    /**
+     * Opens a point-in-time view of the catalog. Writers pause only while every stripe lock is taken to
+     * copy the running totals at the view's version; no product is read. Close it when done, so the older
+     * product states kept for it can be reclaimed.
+     */
+    public InventoryView openView() {
+        InventoryView[] view = new InventoryView[1];
+        withAllStripes(0, () -> view[0] = versions.open(aggregates.totals(), aggregates.byCategory()));
+        return view[0];
+    }
+    public List<Product> getLowStockProducts() {
+        long start = System.nanoTime();
+        try {
+            return resolve(index.lowStockIds(), Integer.MAX_VALUE);
+        } finally {
+            lowStockTimer.recordSince(start);
+        }
+    }
+    public List<Product> getProductsByCategory(String category) {
+        return resolve(index.idsInCategory(category), Integer.MAX_VALUE);
+    }
+    public Set<String> getCategories() { return index.categories(); }
+    /** Products whose ID or name starts with {@code prefix}, ignoring case; at most {@code limit} results. */
+    public List<Product> searchProducts(String prefix, int limit) {
+        long start = System.nanoTime();
+        try {
+            return resolve(index.search(prefix, limit), limit);
+        } finally {
+            searchTimer.recordSince(start);
+        }
+    }
+    public Product getProduct(String id) { return inventory.get(id); }
+
+    /**
+     * Registers a listener for every applied change. Events arrive in order per product, in batches, on
+     * the bus's dispatcher thread; listeners must not block it for long.
+     */
+    public void addChangeListener(InventoryListener l) { events.subscribe(l); }
+    public void removeChangeListener(InventoryListener l) { events.unsubscribe(l); }
+
+    /** Latency of every public operation; callers such as the UI may add their own operations. */
+    public Metrics getMetrics() { return metrics; }
+
+    /**
+     * The low-stock alert engine, created and subscribed on first use. Notifications for a product are
+     * debounced by {@code inventory.alertDebounceMinutes} (default 15); suggestions cover
+     * {@code inventory.reorderCoverDays} (default 14) days of recent demand.
+     */
+    public synchronized LowStockAlerts getLowStockAlerts() {
+        if (alerts == null) {
+            alerts = new LowStockAlerts(this, TimeUnit.MINUTES.toMillis(Long.getLong("inventory.alertDebounceMinutes", 15)),
+                    Integer.getInteger("inventory.reorderCoverDays", 14));
+            addChangeListener(alerts);
+        }
+        return alerts;
+    }
+    /**
+     * Adds a new product; a negative price, quantity or minimum is an IllegalArgumentException. A null
+     * name or category is stored as empty.
+     */
+    public boolean addProduct(Product p) {
+        checkDetails(p.getPrice(), p.getMinStockLevel());
+        if (p.getQuantity() < 0) throw new IllegalArgumentException("Quantity cannot be negative");
+        if (p.getName() == null) p.setName("");
+        if (p.getCategory() == null) p.setCategory("");
+        long start = System.nanoTime();
+        try {
+            long lsn;
+            synchronized (lockFor(p.getProductId())) {
+                if (inventory.containsKey(p.getProductId())) return false;
+                versions.inserting(p);
+                inventory.put(p.getProductId(), p);
+                versions.commit(p, versions.begin(p));
+                if (p.getQuantity() != 0) locations.set(p.getProductId(), LocationStore.DEFAULT, p.getQuantity());
+                index.add(p);
+                aggregates.include(p);
+                long seq = txnCounter.getAndIncrement();
+                long now = System.currentTimeMillis();
+                addTransaction(seq, p.getProductId(), TransactionType.IN, p.getQuantity(), "Initial stock", now);
+                trace(p.getProductId(), now, p.getQuantity());
+                lsn = log(JournalRecord.productAdded(p, seq, now));
+                p.setJournalLsn(lsn);
+                publish(InventoryEventType.PRODUCT_ADDED, p, 0, false);
+            }
+            commit(lsn);
+            return true;
+        } finally {
+            events.flush();
+            addProductTimer.recordSince(start);
+        }
+    }
+    /** Replaces a product's details as {@link #addProduct} would check and store them. */
+    public boolean updateProduct(String id, String name, String category, double price, int minStock) {
+        checkDetails(price, minStock);
+        if (name == null) name = "";
+        if (category == null) category = "";
+        long start = System.nanoTime();
+        try {
+            long lsn;
+            synchronized (lockFor(id)) {
+                Product p = inventory.get(id);
+                if (p == null) return false;
+                String oldName = p.getName(), oldCategory = p.getCategory();
+                boolean wasLow = p.isLowStock();
+                long v = versions.begin(p);
+                aggregates.retract(p);
+                p.setName(name); p.setCategory(category); p.setPrice(price); p.setMinStockLevel(minStock);
+                aggregates.include(p);
+                versions.commit(p, v);
+                index.updated(p, oldName, oldCategory);
+                lsn = log(JournalRecord.productUpdated(id, name, category, price, minStock, System.currentTimeMillis()));
+                p.setJournalLsn(lsn);
+                publish(InventoryEventType.PRODUCT_UPDATED, p, 0, wasLow);
+            }
+            commit(lsn);
+            return true;
+        } finally {
+            events.flush();
+            updateProductTimer.recordSince(start);
+        }
+    }
+    private static void checkDetails(double price, int minStock) {
+        if (!(price >= 0) || Double.isInfinite(price)) throw new IllegalArgumentException("Price must be a non-negative number");
+        if (minStock < 0) throw new IllegalArgumentException("Min stock cannot be negative");
+    }
+    /**
+     * Overwrites the on-hand quantity (manual correction); use addStock/removeStock for movements. Stock
+     * held at other locations stays where it is and the default location absorbs the difference, so
+     * {@code qty} may be neither negative nor less than the stock held elsewhere.
+     */
+    public boolean setQuantity(String id, int qty) {
+        return setQuantity(id, null, qty, true);
+    }
+    /** Overwrites the quantity at one location; the product total changes by the difference. */
+    public boolean setQuantity(String id, String location, int qty) {
+        return setQuantity(id, location, qty, false);
+    }
+    private boolean setQuantity(String id, String location, int qty, boolean total) {
+        if (qty < 0) throw new IllegalArgumentException("Quantity cannot be negative");
+        String loc = LocationStore.normalize(location);
+        long start = System.nanoTime();
+        try {
+            long lsn;
+            synchronized (lockFor(id)) {
+                Product p = inventory.get(id);
+                if (p == null) return false;
+                int before = p.getQuantity(), atBefore = locations.quantity(id, loc);
+                int at = total ? qty - (before - atBefore) : qty;
+                if (at < 0 && before != atBefore) throw new IllegalArgumentException(
+                        "Quantity cannot be below the " + (before - atBefore) + " held at other locations");
+                boolean wasLow = p.isLowStock();
+                long v = versions.begin(p);
+                aggregates.retract(p);
+                p.setQuantity(before + at - atBefore);
+                locations.set(id, loc, at);
+                aggregates.include(p);
+                versions.commit(p, v);
+                index.stockChanged(p);
+                long now = System.currentTimeMillis();
+                trace(id, now, p.getQuantity());
+                lsn = log(JournalRecord.quantitySet(id, loc, at, now));
+                p.setJournalLsn(lsn);
+                publish(InventoryEventType.QUANTITY_SET, p, p.getQuantity() - before, wasLow);
+            }
+            commit(lsn);
+            return true;
+        } finally {
+            events.flush();
+            setQuantityTimer.recordSince(start);
+        }
+    }
+    /** Sets the low-stock threshold of a product at one location; see {@link #getLowStockLevels()}. */
+    public boolean setLocationMinStock(String id, String location, int min) {
+        if (min < 0) throw new IllegalArgumentException("Min stock cannot be negative");
+        String loc = LocationStore.normalize(location);
+        long lsn;
+        synchronized (lockFor(id)) {
+            Product p = inventory.get(id);
+            if (p == null) return false;
+            locations.setMinStock(id, loc, min);
+            lsn = log(JournalRecord.locationMinSet(id, loc, min, System.currentTimeMillis()));
+            p.setJournalLsn(lsn);
+        }
+        commit(lsn);
+        return true;
+    }
+    /**
+     * Adds products with new IDs and brings existing ones in line with the given details and quantity,
+     * one journaled mutation each. Returns how many were added.
+     */
+    public int importProducts(List<Product> products, ProgressListener progress) {
+        int added = 0, done = 0;
+        for (Product p : products) {
+            if (addProduct(p)) {
+                added++;
+            } else {
+                String id = p.getProductId();
+                updateProduct(id, p.getName(), p.getCategory(), p.getPrice(), p.getMinStockLevel());
+                Product current = inventory.get(id);
+                if (current != null && current.getQuantity() != p.getQuantity()) setQuantity(id, p.getQuantity());
+            }
+            if (++done % 16384 == 0) progress.progress(done, products.size());
+        }
+        progress.progress(done, products.size());
+        return added;
+    }
+    /**
+     * Restores exported transactions to the history with their own IDs and timestamps, skipping IDs the
+     * history already holds, and returns how many were added. Stock is not touched: the movements already
+     * happened, and product quantities (e.g. from {@link #importProducts}) include them. New transactions
+     * are numbered after the highest imported ID. IDs are this service's transaction numbers, so the file
+     * should come from this service's own export, e.g. to restore a lost history archive. The restored
+     * entries are forced to the history archive before this returns, since no journal record carries them.
+     */
+    public int importTransactions(List<Transaction> transactions, ProgressListener progress) {
+        List<Transaction> sorted = new ArrayList<>(transactions);
+        sorted.sort(Comparator.comparingLong(Transaction::getSequence));
+        long next = sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1).getSequence() + 1;
+        // with every stripe held, no writer has a number it has not added to the history yet
+        withAllStripes(0, () -> txnCounter.accumulateAndGet(next, Math::max));
+        long[] existing = history.sequences();
+        int added = 0, done = 0;
+        long last = -1;
+        for (Transaction t : sorted) {
+            long seq = t.getSequence();
+            if (seq != last && Arrays.binarySearch(existing, seq) < 0) {
+                history.add(seq, t.getProductId(), t.getTransactionType(), t.getQuantity(), t.getReason(), t.getEpochMillis());
+                added++;
+            }
+            last = seq;
+            if (++done % 16384 == 0) progress.progress(done, sorted.size());
+        }
+        history.checkpoint();
+        progress.progress(done, sorted.size());
+        return added;
+    }
+    public boolean deleteProduct(String id) {
+        long start = System.nanoTime();
+        try {
+            long lsn;
+            synchronized (lockFor(id)) {
+                Product p = inventory.get(id);
+                if (p == null) return false;
+                long v = versions.begin(p);
+                versions.deleting(p);
+                inventory.remove(id);
+                locations.removeProduct(id);
+                versions.commit(p, v);
+                index.remove(p);
+                aggregates.retract(p);
+                long now = System.currentTimeMillis();
+                trace(id, now, StockTimeline.ABSENT);
+                lsn = log(JournalRecord.productDeleted(id, now));
+                if (events.hasListeners()) events.publish(new InventoryEvent(InventoryEventType.PRODUCT_DELETED, id, 0, 0, now));
+            }
+            commit(lsn);
+            return true;
+        } finally {
+            events.flush();
+            deleteProductTimer.recordSince(start);
+        }
+    }
+    public String addStock(String id, int qty, String reason) {
+        return addStock(id, LocationStore.DEFAULT, qty, reason);
+    }
+    public String removeStock(String id, int qty, String reason) {
+        return removeStock(id, LocationStore.DEFAULT, qty, reason);
+    }
+    public String addStock(String id, String location, int qty, String reason) {
+        StockResult r = moveStock(StockMovement.in(id, location, qty, reason));
+        return r == StockResult.OK ? "Stock added" : r.getMessage();
+    }
+    public String removeStock(String id, String location, int qty, String reason) {
+        StockResult r = moveStock(StockMovement.out(id, location, qty, reason));
+        return r == StockResult.OK ? "Stock removed" : r.getMessage();
+    }
+    /** Applies one movement under its product's stripe lock; an OUT is checked against its location's stock. */
+    public StockResult moveStock(StockMovement m) {
+        long start = System.nanoTime();
+        try {
+            long lsn;
+            synchronized (lockFor(m.productId)) {
+                Product p = inventory.get(m.productId);
+                StockResult check = validate(m, p, p == null ? 0 : locations.quantity(m.productId, m.location));
+                if (check != StockResult.OK) return check;
+                long v = versions.begin(p);
+                long now = System.currentTimeMillis();
+                applyMovement(p, m, now);
+                versions.commit(p, v);
+                lsn = record(m.productId, m.location, m.type == TransactionType.IN ? JournalOp.STOCK_IN : JournalOp.STOCK_OUT, m.quantity, m.reason, now);
+                p.setJournalLsn(lsn);
+            }
+            commit(lsn);
+            return StockResult.OK;
+        } finally {
+            events.flush();
+            (m.type == TransactionType.IN ? addStockTimer : removeStockTimer).recordSince(start);
+        }
+    }
+
+    /**
+     * Validates and applies all movements atomically: the stripe locks of every product involved are
+     * taken in a fixed order, the movements are checked in sequence against running per-location
+     * quantities (so a product may appear several times, e.g. as a transfer between sites), and either all
+     * are applied and journaled as one record, or none is and the result lists each rejected movement. A
+     * batch too large for one journal record is rejected before anything is locked, with
+     * {@link StockResult#BATCH_TOO_LARGE} at the first movement that does not fit.
+     */
+    public BatchResult applyBatch(List<StockMovement> movements) {
+        if (movements.isEmpty()) return new BatchResult(true, 0, Collections.emptySortedMap(), Collections.emptySet());
+        long start = System.nanoTime();
+        try {
+            int overflow = firstUnjournaled(movements);
+            if (overflow >= 0) {
+                SortedMap<Integer, StockResult> failures = new TreeMap<>();
+                failures.put(overflow, StockResult.BATCH_TOO_LARGE);
+                return new BatchResult(false, movements.size(), failures, Collections.emptySet());
+            }
+            int[] stripeIds = movements.stream().mapToInt(m -> stripeOf(m.productId)).distinct().sorted().toArray();
+            BatchResult[] result = new BatchResult[1];
+            long[] lsn = new long[1];
+            withStripes(stripeIds, 0, () -> {
+                SortedMap<Integer, StockResult> failures = new TreeMap<>();
+                Map<String, Integer> running = new HashMap<>(); // productId@location -> quantity
+                Set<String> ids = new LinkedHashSet<>();
+                for (int i = 0; i < movements.size(); i++) {
+                    StockMovement m = movements.get(i);
+                    Product p = inventory.get(m.productId);
+                    String key = m.productId + '@' + m.location;
+                    int qty = running.computeIfAbsent(key, k -> p == null ? 0 : locations.quantity(m.productId, m.location));
+                    StockResult check = validate(m, p, qty);
+                    if (check != StockResult.OK) failures.put(i, check);
+                    else {
+                        running.put(key, m.type == TransactionType.IN ? qty + m.quantity : qty - m.quantity);
+                        ids.add(m.productId);
+                    }
+                }
+                if (!failures.isEmpty()) {
+                    result[0] = new BatchResult(false, movements.size(), failures, Collections.emptySet());
+                    return;
+                }
+                long firstSeq = txnCounter.getAndAdd(movements.size());
+                long now = System.currentTimeMillis();
+                List<Product> affected = new ArrayList<>(ids.size());
+                for (String id : ids) affected.add(inventory.get(id));
+                long v = versions.begin(affected);
+                for (int i = 0; i < movements.size(); i++) {
+                    StockMovement m = movements.get(i);
+                    applyMovement(inventory.get(m.productId), m, now);
+                    addTransaction(firstSeq + i, m.productId, m.type, m.quantity, m.reason, now);
+                }
+                for (Product p : affected) versions.commit(p, v);
+                lsn[0] = log(JournalRecord.batch(new ArrayList<>(movements), firstSeq, now));
+                for (Product p : affected) p.setJournalLsn(lsn[0]);
+                result[0] = new BatchResult(true, movements.size(), Collections.emptySortedMap(), ids);
+            });
+            commit(lsn[0]);
+            return result[0];
+        } finally {
+            events.flush();
+            applyBatchTimer.recordSince(start);
+        }
+    }
+    /** Index of the first movement that would push the batch's journal record past the journal's limit, or -1. */
+    private int firstUnjournaled(List<StockMovement> movements) {
+        if (journal == null) return -1;
+        long size = JournalRecord.batch(Collections.emptyList(), 0, 0).maxEncodedSize();
+        for (int i = 0; i < movements.size(); i++) {
+            size += JournalRecord.maxEncodedSize(movements.get(i));
+            if (size > journal.maxRecordSize()) return i;
+        }
+        return -1;
+    }
+    /**
+     * Returns a copy of the last {@code limit} transactions, oldest first, from the in-memory ring
+     * ({@code inventory.historyCapacity}, default 1048576). Use {@link #queryTransactions} for older history.
+     */
+    public List<Transaction> getRecentTransactions(int limit) {
+        long start = System.nanoTime();
+        try {
+            return history.recent(limit);
+        } finally {
+            recentTransactionsTimer.recordSince(start);
+        }
+    }
+    /** Pages through the full history, newest first; pass {@code Long.MAX_VALUE} as the first cursor. */
+    public TransactionPage queryTransactions(TransactionQuery query, long cursor, int limit) {
+        long start = System.nanoTime();
+        try {
+            return history.query(query, cursor, limit);
+        } finally {
+            queryTransactionsTimer.recordSince(start);
+        }
+    }
+    public long getTotalItems() { return aggregates.totals().items; }
+    public double getTotalValue() { return aggregates.totals().getTotalValue(); }
+    public int getLowStockCount() { return (int) aggregates.totals().lowStock; }
+    /**
+     * Catalog-wide totals from the running aggregates; O(1) in catalog size. In verify mode a drift from
+     * the recomputed totals is an IllegalStateException.
+     */
+    public InventoryTotals getSummary() {
+        long start = System.nanoTime();
+        try {
+            InventoryTotals t = aggregates.totals();
+            if (verifyAggregates) {
+                List<String> drift = verifyAggregates();
+                if (!drift.isEmpty()) throw new IllegalStateException("Inventory aggregates drifted: " + drift);
+            }
+            return t;
+        } finally {
+            summaryTimer.recordSince(start);
+        }
+    }
+    public Map<String, InventoryTotals> getCategorySummaries() { return aggregates.byCategory(); }
+
+    /** Every location that has held stock, by name; {@code MAIN} is where unlocated stock goes. */
+    public SortedSet<String> getLocations() { return locations.locations(); }
+    /** The product's stock at each location, by location name; the quantities sum to its total. */
+    public List<StockLevel> getStockLevels(String productId) { return locations.levels(productId); }
+    /** Every product row at {@code location}, by product ID. */
+    public List<StockLevel> getStockAt(String location) { return locations.at(LocationStore.normalize(location)); }
+    /**
+     * Totals per location, computed in parallel across locations and within each one. Rows are read
+     * without locks, so under concurrent movements the figures are approximate.
+     */
+    public Map<String, InventoryTotals> getLocationSummaries() {
+        long start = System.nanoTime();
+        try {
+            return locations.totals(inventory::get);
+        } finally {
+            locationSummaryTimer.recordSince(start);
+        }
+    }
+    /** Product rows at or below their per-location minimum, by location then product ID. */
+    public List<StockLevel> getLowStockLevels() { return locations.lowStock(); }
+
+    /**
+     * The product's total quantity at {@code at}, from its stock timeline in O(log changes) plus at most
+     * one archived segment read; null if it did not exist then. History recorded before snapshots carried
+     * timelines starts at that snapshot.
+     */
+    public Integer getQuantityAt(String productId, LocalDateTime at) {
+        long start = System.nanoTime();
+        try {
+            StockTimeline t = timelines.get(productId);
+            int q = t == null ? StockTimeline.ABSENT : t.at(Transaction.toEpochMillis(at));
+            return q == StockTimeline.ABSENT ? null : q;
+        } finally {
+            quantityAtTimer.recordSince(start);
+        }
+    }
+    /**
+     * The product's quantity at the end of each day from {@code from} to {@code to} inclusive, local time;
+     * days on which it did not exist at closing are left out.
+     */
+    public SortedMap<LocalDate, Integer> getDailyClosingStock(String productId, LocalDate from, LocalDate to) {
+        long start = System.nanoTime();
+        try {
+            SortedMap<LocalDate, Integer> res = new TreeMap<>();
+            StockTimeline t = timelines.get(productId);
+            if (t == null || to.isBefore(from)) return res;
+            int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+            long[] closing = new long[days];
+            for (int d = 0; d < days; d++) closing[d] = Transaction.toEpochMillis(from.plusDays(d + 1).atStartOfDay()) - 1;
+            int[] q = t.at(closing);
+            for (int d = 0; d < days; d++) if (q[d] != StockTimeline.ABSENT) res.put(from.plusDays(d), q[d]);
+            return res;
+        } finally {
+            dailyClosingTimer.recordSince(start);
+        }
+    }
+
+    /** When enabled, every {@link #getSummary()} is cross-checked with {@link #verifyAggregates()} and fails on drift. */
+    public void setVerifyAggregates(boolean verify) { this.verifyAggregates = verify; }
+
+    /**
+     * Recomputes all totals from the product table while holding every stripe lock, and returns a
+     * description of each running total that disagrees (empty when consistent). Stalls writers for
+     * the duration of a full scan, so it is meant for tests and diagnostics.
+     */
+    public List<String> verifyAggregates() {
+        List<String> drift = new ArrayList<>();
+        withAllStripes(0, () -> {
+            InventoryTotals[] expected = new InventoryTotals[1];
+            Map<String, InventoryTotals> cats = InventoryAggregates.recompute(inventory.values(), expected);
+            InventoryTotals actual = aggregates.totals();
+            if (!actual.equals(expected[0])) drift.add("total: running " + actual + ", recomputed " + expected[0]);
+            Map<String, InventoryTotals> running = aggregates.byCategory();
+            if (!running.equals(cats)) drift.add("categories: running " + running + ", recomputed " + cats);
+            for (Product p : inventory.values()) {
+                int sum = locations.total(p.getProductId());
+                if (sum != p.getQuantity()) drift.add(p.getProductId() + ": quantity " + p.getQuantity() + ", locations " + sum);
+            }
+        });
+        return drift;
+    }
+    /**
+     * Writes a snapshot of every product and archives the journal segments it makes redundant. Writers
+     * keep running; each product is only locked while its fields are copied, and every stripe only while
+     * the start LSN and history mark are read, so the transactions below the mark are exactly those
+     * journaled below the start LSN. Those are forced to the history archive before the snapshot is
+     * committed, so compacting the journal loses no history. Returns the product count, or -1 for an
+     * in-memory service.
+     */
+    public int snapshot() throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (journal == null) return -1;
+            synchronized (snapshotLock) {
+                long[] cut = new long[2];
+                withAllStripes(0, () -> {
+                    cut[0] = journal.lastLsn() + 1;
+                    cut[1] = history.mark();
+                });
+                long startLsn = cut[0];
+                int count;
+                try (SnapshotStore.Writer w = snapshots.begin(startLsn)) {
+                    for (Product p : inventory.values()) {
+                        String id = p.getProductId(), name, category;
+                        double price;
+                        int qty, min;
+                        long lsn;
+                        List<StockLevel> levels;
+                        synchronized (lockFor(id)) {
+                            if (inventory.get(id) != p) continue; // deleted meanwhile; replay handles it
+                            name = p.getName(); category = p.getCategory(); price = p.getPrice();
+                            qty = p.getQuantity(); min = p.getMinStockLevel(); lsn = p.getJournalLsn();
+                            levels = locations.levels(id);
+                        }
+                        w.add(id, name, category, price, qty, min, lsn, levels);
+                    }
+                    for (Map.Entry<String, StockTimeline> e : timelines.entrySet()) w.timeline(e.getKey(), e.getValue().image());
+                    long timelineLength = timelineArchive.length(); // covers every segment the images refer to
+                    timelineArchive.force();
+                    history.checkpoint();
+                    count = w.commit(txnCounter.get(), cut[1], timelineLength);
+                }
+                journal.compact(startLsn, archiveDir);
+                return count;
+            }
+        } finally {
+            snapshotTimer.recordSince(start);
+        }
+    }
+
+    /** Takes a {@link #snapshot()} every {@code interval} on a background daemon thread until {@link #close()}. */
+    public synchronized void startPeriodicSnapshots(long interval, TimeUnit unit) {
+        if (journal == null || snapshotter != null) return;
+        snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "inventory-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        snapshotter.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                System.err.println("Inventory snapshot failed: " + e);
+            }
+        }, interval, interval, unit);
+    }
+
+    /**
+     * Stops background snapshots and delivers pending change events, then flushes and closes the journal
+     * and timeline archive, if any, and the history archive.
+     */
+    @Override public void close() {
+        synchronized (this) {
+            if (snapshotter != null) snapshotter.shutdownNow();
+        }
+        events.close();
+        history.close();
+        if (journal != null) {
+            synchronized (snapshotLock) {
+                journal.close();
+                timelineArchive.close();
+            }
+        }
+    }
+
+    /**
+     * Re-applies a journaled mutation during recovery; validation already happened when it was first
+     * written. Records already contained in the loaded snapshot are skipped, but their transactions are
+     * still restored to the history unless the archive already holds them.
+     */
+    private void apply(JournalRecord r) {
+        if (r.op == JournalOp.STOCK_BATCH) {
+            applyBatchRecord(r);
+            return;
+        }
+        if (r.txnSeq >= txnCounter.get()) txnCounter.set(r.txnSeq + 1);
+        Product p = inventory.get(r.productId);
+        if (p != null && r.lsn <= p.getJournalLsn()) {
+            if (r.op == JournalOp.PRODUCT_ADDED) addTransaction(r.txnSeq, r.productId, TransactionType.IN, r.quantity, "Initial stock", r.timestamp);
+            else if (r.op == JournalOp.STOCK_IN || r.op == JournalOp.STOCK_OUT)
+                addTransaction(r.txnSeq, r.productId, r.op == JournalOp.STOCK_IN ? TransactionType.IN : TransactionType.OUT, r.quantity, r.reason, r.timestamp);
+            return;
+        }
+        if (r.op == JournalOp.LOCATION_MIN_SET) {
+            if (p != null) {
+                locations.setMinStock(r.productId, r.location, r.minStock);
+                p.setJournalLsn(r.lsn);
+            }
+            return;
+        }
+        if (p != null) aggregates.retract(p);
+        switch (r.op) {
+            case PRODUCT_ADDED:
+                if (p != null) index.remove(p);
+                p = new Product(r.productId, r.name, r.category, r.price, r.quantity, r.minStock);
+                inventory.put(r.productId, p);
+                locations.removeProduct(r.productId);
+                if (r.quantity != 0) locations.set(r.productId, LocationStore.DEFAULT, r.quantity);
+                index.add(p);
+                addTransaction(r.txnSeq, r.productId, TransactionType.IN, r.quantity, "Initial stock", r.timestamp);
+                break;
+            case PRODUCT_UPDATED:
+                if (p != null) {
+                    String oldName = p.getName(), oldCategory = p.getCategory();
+                    p.setName(r.name); p.setCategory(r.category); p.setPrice(r.price); p.setMinStockLevel(r.minStock);
+                    index.updated(p, oldName, oldCategory);
+                }
+                break;
+            case PRODUCT_DELETED:
+                if (p != null) {
+                    inventory.remove(r.productId);
+                    locations.removeProduct(r.productId);
+                    index.remove(p);
+                    p = null;
+                }
+                break;
+            case STOCK_IN:
+                if (p != null) {
+                    p.setQuantity(p.getQuantity() + r.quantity);
+                    locations.add(r.productId, r.location, r.quantity);
+                }
+                addTransaction(r.txnSeq, r.productId, TransactionType.IN, r.quantity, r.reason, r.timestamp);
+                break;
+            case STOCK_OUT:
+                if (p != null) {
+                    p.setQuantity(p.getQuantity() - r.quantity);
+                    locations.add(r.productId, r.location, -r.quantity);
+                }
+                addTransaction(r.txnSeq, r.productId, TransactionType.OUT, r.quantity, r.reason, r.timestamp);
+                break;
+            case QUANTITY_SET:
+                if (p != null) {
+                    p.setQuantity(p.getQuantity() + r.quantity - locations.quantity(r.productId, r.location));
+                    locations.set(r.productId, r.location, r.quantity);
+                }
+                break;
+        }
+        if (p != null) {
+            aggregates.include(p);
+            if (r.op == JournalOp.STOCK_IN || r.op == JournalOp.STOCK_OUT || r.op == JournalOp.QUANTITY_SET) index.stockChanged(p);
+            p.setJournalLsn(r.lsn);
+            trace(r.productId, r.timestamp, p.getQuantity());
+        } else if (r.op == JournalOp.PRODUCT_DELETED) {
+            trace(r.productId, r.timestamp, StockTimeline.ABSENT);
+        }
+    }
+
+    private static StockResult validate(StockMovement m, Product p, int currentQty) {
+        if (p == null) return StockResult.PRODUCT_NOT_FOUND;
+        if (m.quantity <= 0) return StockResult.INVALID_QUANTITY;
+        if (m.type == TransactionType.OUT && currentQty < m.quantity) return StockResult.INSUFFICIENT_STOCK;
+        return StockResult.OK;
+    }
+
+    // caller holds p's stripe lock
+    private void applyMovement(Product p, StockMovement m, long now) {
+        boolean wasLow = p.isLowStock();
+        int delta = m.type == TransactionType.IN ? m.quantity : -m.quantity;
+        aggregates.retract(p);
+        p.setQuantity(p.getQuantity() + delta);
+        locations.add(m.productId, m.location, delta);
+        trace(m.productId, now, p.getQuantity());
+        aggregates.include(p);
+        index.stockChanged(p);
+        publish(InventoryEventType.STOCK_MOVED, p, delta, wasLow);
+    }
+
+    // caller holds p's stripe lock, so each product's events are published in the order they happened
+    private void publish(InventoryEventType type, Product p, int delta, boolean wasLow) {
+        if (!events.hasListeners()) return;
+        long now = System.currentTimeMillis();
+        events.publish(new InventoryEvent(type, p.getProductId(), p.getQuantity(), delta, now));
+        boolean low = p.isLowStock();
+        if (low != wasLow) {
+            events.publish(new InventoryEvent(low ? InventoryEventType.LOW_STOCK_ENTERED : InventoryEventType.LOW_STOCK_CLEARED,
+                    p.getProductId(), p.getQuantity(), 0, now));
+        }
+    }
+
+    private List<Product> resolve(Collection<String> ids, int limit) {
+        List<Product> res = new ArrayList<>(Math.min(ids.size(), limit));
+        for (String id : ids) {
+            Product p = inventory.get(id);
+            if (p != null) res.add(p);
+            if (res.size() >= limit) break;
+        }
+        return res;
+    }
+
+    private void withAllStripes(int i, Runnable action) {
+        if (i == stripes.length) {
+            action.run();
+            return;
+        }
+        synchronized (stripes[i]) {
+            withAllStripes(i + 1, action);
+        }
+    }
+
+    /** Runs {@code action} holding the given stripes, which must be sorted so lock order is global. */
+    private void withStripes(int[] sortedStripes, int i, Runnable action) {
+        if (i == sortedStripes.length) {
+            action.run();
+            return;
+        }
+        synchronized (stripes[sortedStripes[i]]) {
+            withStripes(sortedStripes, i + 1, action);
+        }
+    }
+
+    private void applyBatchRecord(JournalRecord r) {
+        long last = r.txnSeq + r.movements.size() - 1;
+        if (last >= txnCounter.get()) txnCounter.set(last + 1);
+        Set<String> current = new HashSet<>(); // products the snapshot already shows with this batch applied
+        for (StockMovement m : r.movements) {
+            Product p = inventory.get(m.productId);
+            if (p != null && r.lsn <= p.getJournalLsn()) current.add(m.productId);
+        }
+        for (int i = 0; i < r.movements.size(); i++) {
+            StockMovement m = r.movements.get(i);
+            Product p = inventory.get(m.productId);
+            if (p != null && !current.contains(m.productId)) applyMovement(p, m, r.timestamp);
+            addTransaction(r.txnSeq + i, m.productId, m.type, m.quantity, m.reason, r.timestamp);
+        }
+        for (StockMovement m : r.movements) {
+            Product p = inventory.get(m.productId);
+            if (p != null) p.setJournalLsn(r.lsn);
+        }
+    }
+
+    private static Object[] newStripes() {
+        Object[] s = new Object[STRIPES];
+        for (int i = 0; i < s.length; i++) s[i] = new Object();
+        return s;
+    }
+    private Object lockFor(String id) {
+        return stripes[stripeOf(id)];
+    }
+    private int stripeOf(String id) {
+        int h = id.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+    private long log(JournalRecord r) {
+        return journal == null ? 0 : journal.append(r);
+    }
+    private void commit(long lsn) {
+        if (journal != null) journal.commit(lsn);
+    }
+    private long record(String productId, String location, JournalOp op, int qty, String reason, long now) {
+        long seq = txnCounter.getAndIncrement();
+        addTransaction(seq, productId, op == JournalOp.STOCK_OUT ? TransactionType.OUT : TransactionType.IN, qty, reason, now);
+        return log(JournalRecord.stock(op, productId, location, qty, reason, seq, now));
+    }
+    // caller holds productId's stripe lock, or is recovering
+    private void trace(String productId, long millis, int balance) {
+        timelines.computeIfAbsent(productId, id -> new StockTimeline(timelineArchive)).append(millis, balance);
+    }
+    private void addTransaction(long seq, String productId, TransactionType type, int qty, String reason, long epochMillis) {
+        if (recoveredSequences != null && Arrays.binarySearch(recoveredSequences, seq) >= 0) return;
+        history.add(seq, productId, type, qty, reason, epochMillis);
+    }
+    private static int historyCapacity() {
+        return Integer.getInteger("inventory.historyCapacity", TransactionHistory.DEFAULT_CAPACITY);
+    }
+}
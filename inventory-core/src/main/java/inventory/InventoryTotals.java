@@ -0,0 +1,27 @@
+package inventory;
+
+import java.util.Objects;
+
+/** Immutable totals for the whole catalog or one category. Value is exact to the cent. */
+public final class InventoryTotals {
+    final long products;
+    final long items;
+    final long valueCents;
+    final long lowStock;
+    InventoryTotals(long products, long items, long valueCents, long lowStock) {
+        this.products = products; this.items = items; this.valueCents = valueCents; this.lowStock = lowStock;
+    }
+    public long getProductCount() { return products; }
+    public long getTotalItems() { return items; }
+    public double getTotalValue() { return valueCents / 100.0; }
+    public long getLowStockCount() { return lowStock; }
+    @Override public boolean equals(Object o) {
+        if (!(o instanceof InventoryTotals)) return false;
+        InventoryTotals t = (InventoryTotals) o;
+        return products == t.products && items == t.items && valueCents == t.valueCents && lowStock == t.lowStock;
+    }
+    @Override public int hashCode() { return Objects.hash(products, items, valueCents, lowStock); }
+    @Override public String toString() {
+        return "products=" + products + " items=" + items + " valueCents=" + valueCents + " lowStock=" + lowStock;
+    }
+}
@@ -0,0 +1,68 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A consistent, read-only image of the catalog as of one commit, for reports, exports and table loads.
+ * Its totals are the running ones captured when it was opened, so summaries are O(1); products are
+ * read from it lazily and cached. The products it returns are detached copies and must not be modified.
+ * Close it when done: while it is open, writers keep copies of the states it could still read.
+ */
+public final class InventoryView implements AutoCloseable {
+    private final ProductVersions versions;
+    private final long version;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final InventoryTotals totals;
+    private final Map<String, InventoryTotals> categories;
+    private List<Product> products;
+    private List<Product> lowStock;
+
+    InventoryView(ProductVersions versions, long version, InventoryTotals totals, Map<String, InventoryTotals> categories) {
+        this.versions = versions;
+        this.version = version;
+        this.totals = totals;
+        this.categories = Collections.unmodifiableMap(categories);
+    }
+
+    /** The commit this view reads as of; a later view with the same version sees the same catalog. */
+    public long getVersion() { return version; }
+
+    public Product getProduct(String id) {
+        ensureOpen();
+        return versions.read(id, version);
+    }
+
+    public synchronized List<Product> getProducts() {
+        if (products == null) {
+            ensureOpen();
+            products = Collections.unmodifiableList(versions.readAll(version));
+        }
+        return products;
+    }
+
+    public InventoryTotals getSummary() { return totals; }
+
+    /** Totals per category, sorted by category name. */
+    public Map<String, InventoryTotals> getCategorySummaries() { return categories; }
+
+    public synchronized List<Product> getLowStockProducts() {
+        if (lowStock == null) {
+            List<Product> low = new ArrayList<>();
+            for (Product p : getProducts()) if (p.isLowStock()) low.add(p);
+            lowStock = Collections.unmodifiableList(low);
+        }
+        return lowStock;
+    }
+
+    @Override public void close() {
+        if (closed.compareAndSet(false, true)) versions.release(version);
+    }
+
+    private void ensureOpen() {
+        if (closed.get()) throw new IllegalStateException("view is closed");
+    }
+}
@@ -0,0 +1,11 @@
+package inventory;
+
+/**
+ * Journaled mutation kinds; ordinals are stored, so new ones go at the end. The {@code _AT} forms carry a
+ * location other than the default and decode back to the plain op with {@link JournalRecord#location} set.
+ * QUANTITY_SET overwrites one location's quantity and the product total follows.
+ */
+enum JournalOp {
+    PRODUCT_ADDED, PRODUCT_UPDATED, PRODUCT_DELETED, STOCK_IN, STOCK_OUT, QUANTITY_SET, STOCK_BATCH,
+    STOCK_IN_AT, STOCK_OUT_AT, QUANTITY_SET_AT, STOCK_BATCH_AT, LOCATION_MIN_SET
+}
@@ -0,0 +1,193 @@
+package inventory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/** One journal entry. Which payload fields are meaningful depends on {@link #op}. */
+final class JournalRecord {
+    long lsn;                 // assigned by TransactionJournal.append
+    final JournalOp op;
+    final long timestamp;     // epoch millis
+    final String productId;
+    final String name, category, reason;
+    final double price;
+    final int quantity, minStock;
+    final long txnSeq;        // 0 when the op does not create a Transaction; first sequence of a batch
+    final List<StockMovement> movements; // STOCK_BATCH only; one record so replay is all-or-nothing
+    final String location;    // stock ops and LOCATION_MIN_SET
+
+    private JournalRecord(JournalOp op, long timestamp, String productId, String name, String category,
+                          double price, int quantity, int minStock, String reason, long txnSeq) {
+        this(op, timestamp, productId, name, category, price, quantity, minStock, reason, txnSeq, null, LocationStore.DEFAULT);
+    }
+    private JournalRecord(JournalOp op, long timestamp, String productId, String name, String category,
+                          double price, int quantity, int minStock, String reason, long txnSeq, List<StockMovement> movements,
+                          String location) {
+        this.op = op; this.timestamp = timestamp; this.productId = productId;
+        this.name = name; this.category = category; this.price = price;
+        this.quantity = quantity; this.minStock = minStock; this.reason = reason; this.txnSeq = txnSeq;
+        this.movements = movements; this.location = location;
+    }
+    static JournalRecord productAdded(Product p, long txnSeq, long now) {
+        return new JournalRecord(JournalOp.PRODUCT_ADDED, now, p.getProductId(), p.getName(), p.getCategory(),
+                p.getPrice(), p.getQuantity(), p.getMinStockLevel(), "", txnSeq);
+    }
+    static JournalRecord productUpdated(String id, String name, String category, double price, int minStock, long now) {
+        return new JournalRecord(JournalOp.PRODUCT_UPDATED, now, id, name, category, price, 0, minStock, "", 0);
+    }
+    static JournalRecord productDeleted(String id, long now) {
+        return new JournalRecord(JournalOp.PRODUCT_DELETED, now, id, "", "", 0, 0, 0, "", 0);
+    }
+    static JournalRecord stock(JournalOp op, String id, String location, int qty, String reason, long txnSeq, long now) {
+        return new JournalRecord(op, now, id, "", "", 0, qty, 0, reason, txnSeq, null, location);
+    }
+    static JournalRecord quantitySet(String id, String location, int qty, long now) {
+        return new JournalRecord(JournalOp.QUANTITY_SET, now, id, "", "", 0, qty, 0, "", 0, null, location);
+    }
+    static JournalRecord locationMinSet(String id, String location, int min, long now) {
+        return new JournalRecord(JournalOp.LOCATION_MIN_SET, now, id, "", "", 0, 0, min, "", 0, null, location);
+    }
+    static JournalRecord batch(List<StockMovement> movements, long firstTxnSeq, long now) {
+        return new JournalRecord(JournalOp.STOCK_BATCH, now, "", "", "", 0, 0, 0, "", firstTxnSeq, movements, LocationStore.DEFAULT);
+    }
+
+    /** Upper bound on {@link #encode}'s output, for sizing the journal's scratch buffer. */
+    int maxEncodedSize() {
+        int size = 64 + 3 * (productId.length() + name.length() + category.length() + reason.length() + location.length());
+        if (movements != null) {
+            for (StockMovement m : movements) size += maxEncodedSize(m);
+        }
+        return size;
+    }
+    static int maxEncodedSize(StockMovement m) {
+        return 11 + 3 * (m.productId.length() + m.reason.length() + m.location.length());
+    }
+
+    void encode(ByteBuffer out) {
+        out.putLong(lsn).put((byte) storedOp().ordinal()).putLong(timestamp);
+        putString(out, productId);
+        switch (op) {
+            case PRODUCT_ADDED:
+                putString(out, name); putString(out, category);
+                out.putDouble(price).putInt(quantity).putInt(minStock).putLong(txnSeq);
+                break;
+            case PRODUCT_UPDATED:
+                putString(out, name); putString(out, category);
+                out.putDouble(price).putInt(minStock);
+                break;
+            case STOCK_IN: case STOCK_OUT:
+                out.putInt(quantity).putLong(txnSeq);
+                putString(out, reason);
+                break;
+            case QUANTITY_SET:
+                out.putInt(quantity);
+                break;
+            case LOCATION_MIN_SET:
+                out.putInt(minStock);
+                putString(out, location);
+                break;
+            case STOCK_BATCH: {
+                boolean located = storedOp() == JournalOp.STOCK_BATCH_AT;
+                out.putLong(txnSeq).putInt(movements.size());
+                for (StockMovement m : movements) {
+                    out.put((byte) m.type.ordinal()).putInt(m.quantity);
+                    putString(out, m.productId);
+                    putString(out, m.reason);
+                    if (located) putString(out, m.location);
+                }
+                break;
+            }
+            default:
+                break;
+        }
+        if (op != JournalOp.STOCK_BATCH && storedOp() != op) putString(out, location);
+    }
+
+    /** The op as written: the {@code _AT} form when the record's stock is away from the default location. */
+    private JournalOp storedOp() {
+        switch (op) {
+            case STOCK_IN: return LocationStore.DEFAULT.equals(location) ? op : JournalOp.STOCK_IN_AT;
+            case STOCK_OUT: return LocationStore.DEFAULT.equals(location) ? op : JournalOp.STOCK_OUT_AT;
+            case QUANTITY_SET: return LocationStore.DEFAULT.equals(location) ? op : JournalOp.QUANTITY_SET_AT;
+            case STOCK_BATCH:
+                for (StockMovement m : movements) if (!LocationStore.DEFAULT.equals(m.location)) return JournalOp.STOCK_BATCH_AT;
+                return op;
+            default: return op;
+        }
+    }
+    static JournalRecord decode(ByteBuffer in) {
+        long lsn = in.getLong();
+        JournalOp op = JournalOp.values()[in.get()];
+        long ts = in.getLong();
+        String id = getString(in);
+        JournalRecord r;
+        switch (op) {
+            case PRODUCT_ADDED: {
+                String name = getString(in), category = getString(in);
+                double price = in.getDouble(); int qty = in.getInt(), min = in.getInt(); long seq = in.getLong();
+                r = new JournalRecord(op, ts, id, name, category, price, qty, min, "", seq);
+                break;
+            }
+            case PRODUCT_UPDATED: {
+                String name = getString(in), category = getString(in);
+                double price = in.getDouble(); int min = in.getInt();
+                r = productUpdated(id, name, category, price, min, ts);
+                break;
+            }
+            case STOCK_IN: case STOCK_OUT: {
+                int qty = in.getInt(); long seq = in.getLong();
+                r = stock(op, id, LocationStore.DEFAULT, qty, getString(in), seq, ts);
+                break;
+            }
+            case STOCK_IN_AT: case STOCK_OUT_AT: {
+                int qty = in.getInt(); long seq = in.getLong();
+                String reason = getString(in);
+                r = stock(op == JournalOp.STOCK_IN_AT ? JournalOp.STOCK_IN : JournalOp.STOCK_OUT, id, getString(in), qty, reason, seq, ts);
+                break;
+            }
+            case QUANTITY_SET:
+                r = quantitySet(id, LocationStore.DEFAULT, in.getInt(), ts);
+                break;
+            case QUANTITY_SET_AT: {
+                int qty = in.getInt();
+                r = quantitySet(id, getString(in), qty, ts);
+                break;
+            }
+            case LOCATION_MIN_SET: {
+                int min = in.getInt();
+                r = locationMinSet(id, getString(in), min, ts);
+                break;
+            }
+            case STOCK_BATCH: case STOCK_BATCH_AT: {
+                long seq = in.getLong();
+                int n = in.getInt();
+                List<StockMovement> ms = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    TransactionType type = TransactionType.values()[in.get()];
+                    int qty = in.getInt();
+                    String pid = getString(in), reason = getString(in);
+                    String location = op == JournalOp.STOCK_BATCH_AT ? getString(in) : LocationStore.DEFAULT;
+                    ms.add(new StockMovement(pid, location, type, qty, reason));
+                }
+                r = batch(ms, seq, ts);
+                break;
+            }
+            default:
+                r = productDeleted(id, ts);
+        }
+        r.lsn = lsn;
+        return r;
+    }
+    private static void putString(ByteBuffer out, String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        if (b.length > 0xFFFF) throw new IllegalArgumentException("Field too long for journal: " + b.length + " bytes");
+        out.putShort((short) b.length).put(b);
+    }
+    private static String getString(ByteBuffer in) {
+        byte[] b = new byte[in.getShort() & 0xFFFF];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
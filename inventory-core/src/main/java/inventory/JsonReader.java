@@ -0,0 +1,143 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses a request body into maps, lists, strings, longs, doubles, booleans and nulls. Request bodies
+ * are small (one product, or a batch of movements), so unlike {@link JsonWriter} this builds a tree.
+ */
+final class JsonReader {
+    private final String s;
+    private int pos;
+
+    private JsonReader(String s) { this.s = s; }
+
+    /** @throws IllegalArgumentException if {@code json} is not one well-formed value */
+    static Object parse(String json) {
+        JsonReader r = new JsonReader(json);
+        Object v = r.value();
+        r.skipSpace();
+        if (r.pos != json.length()) throw r.error("Trailing characters");
+        return v;
+    }
+
+    private Object value() {
+        skipSpace();
+        if (pos >= s.length()) throw error("Unexpected end of input");
+        char c = s.charAt(pos);
+        switch (c) {
+            case '{': return object();
+            case '[': return array();
+            case '"': return string();
+            case 't': return literal("true", Boolean.TRUE);
+            case 'f': return literal("false", Boolean.FALSE);
+            case 'n': return literal("null", null);
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return number();
+                throw error("Unexpected '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> object() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        pos++;
+        skipSpace();
+        if (peek('}')) return m;
+        do {
+            skipSpace();
+            if (pos >= s.length() || s.charAt(pos) != '"') throw error("Expected a field name");
+            String name = string();
+            skipSpace();
+            expect(':');
+            m.put(name, value());
+            skipSpace();
+        } while (peek(','));
+        expect('}');
+        return m;
+    }
+
+    private List<Object> array() {
+        List<Object> l = new ArrayList<>();
+        pos++;
+        skipSpace();
+        if (peek(']')) return l;
+        do {
+            l.add(value());
+            skipSpace();
+        } while (peek(','));
+        expect(']');
+        return l;
+    }
+
+    private String string() {
+        StringBuilder sb = new StringBuilder();
+        pos++;
+        while (true) {
+            if (pos >= s.length()) throw error("Unterminated string");
+            char c = s.charAt(pos++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= s.length()) throw error("Unterminated string");
+            char e = s.charAt(pos++);
+            switch (e) {
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    if (pos + 4 > s.length()) throw error("Bad \\u escape");
+                    sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                    pos += 4;
+                    break;
+                default: sb.append(e); // \" \\ \/
+            }
+        }
+    }
+
+    private Object number() {
+        int start = pos;
+        boolean integral = true;
+        while (pos < s.length()) {
+            char c = s.charAt(pos);
+            if (c == '.' || c == 'e' || c == 'E') integral = false;
+            else if (c != '-' && c != '+' && (c < '0' || c > '9')) break;
+            pos++;
+        }
+        String n = s.substring(start, pos);
+        try {
+            return integral ? (Object) Long.parseLong(n) : (Object) Double.parseDouble(n);
+        } catch (NumberFormatException e) {
+            throw error("Bad number " + n);
+        }
+    }
+
+    private Object literal(String word, Object v) {
+        if (!s.startsWith(word, pos)) throw error("Unexpected token");
+        pos += word.length();
+        return v;
+    }
+
+    private boolean peek(char c) {
+        if (pos < s.length() && s.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+    private void expect(char c) {
+        if (!peek(c)) throw error("Expected '" + c + "'");
+    }
+    private void skipSpace() {
+        while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+    }
+    private IllegalArgumentException error(String msg) {
+        return new IllegalArgumentException(msg + " at offset " + pos);
+    }
+}
@@ -0,0 +1,71 @@
+package inventory;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes JSON straight to a Writer, one token at a time, so a million-product listing never exists as
+ * a tree or a String. The caller balances begin/end; commas are inserted automatically.
+ */
+final class JsonWriter {
+    private final Writer out;
+    private boolean first = true; // no comma before the next value
+
+    JsonWriter(Writer out) { this.out = out; }
+
+    JsonWriter beginObject() throws IOException { separate(); out.write('{'); first = true; return this; }
+    JsonWriter endObject() throws IOException { out.write('}'); first = false; return this; }
+    JsonWriter beginArray() throws IOException { separate(); out.write('['); first = true; return this; }
+    JsonWriter endArray() throws IOException { out.write(']'); first = false; return this; }
+
+    JsonWriter name(String name) throws IOException {
+        separate();
+        string(name);
+        out.write(':');
+        first = true;
+        return this;
+    }
+    JsonWriter value(String s) throws IOException {
+        separate();
+        if (s == null) out.write("null"); else string(s);
+        return this;
+    }
+    JsonWriter value(long v) throws IOException { separate(); out.write(Long.toString(v)); return this; }
+    JsonWriter value(double v) throws IOException {
+        separate();
+        out.write(Double.isFinite(v) ? Double.toString(v) : "null");
+        return this;
+    }
+    JsonWriter value(boolean v) throws IOException { separate(); out.write(v ? "true" : "false"); return this; }
+
+    JsonWriter field(String name, String v) throws IOException { return name(name).value(v); }
+    JsonWriter field(String name, long v) throws IOException { return name(name).value(v); }
+    JsonWriter field(String name, double v) throws IOException { return name(name).value(v); }
+    JsonWriter field(String name, boolean v) throws IOException { return name(name).value(v); }
+
+    private void separate() throws IOException {
+        if (!first) out.write(',');
+        first = false;
+    }
+
+    private void string(String s) throws IOException {
+        out.write('"');
+        int from = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') continue;
+            out.write(s, from, i - from);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default: out.write(String.format("\\u%04x", (int) c));
+            }
+            from = i + 1;
+        }
+        out.write(s, from, s.length() - from);
+        out.write('"');
+    }
+}
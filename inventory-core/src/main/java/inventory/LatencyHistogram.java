@@ -0,0 +1,72 @@
+package inventory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram: 16 sub-buckets per power of two, so any
+ * recorded value is reported within about 6%. Recording is one array increment and two adds, with no
+ * locks or allocation; reads are approximate while writers are active.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;                      // values below this get exact buckets
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * (SUB / 2) + SUB / 2;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long value) {
+        if (value < 0) value = 0;
+        counts.getAndIncrement(bucketOf(value));
+        total.increment();
+        sum.add(value);
+        long m = max.get();
+        while (value > m && !max.compareAndSet(m, value)) m = max.get();
+    }
+
+    long count() { return total.sum(); }
+    long max() { return max.get(); }
+    double mean() {
+        long n = total.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /** Upper bound of the bucket holding the {@code percentile}th value (0-100), capped at the max seen. */
+    long percentile(double percentile) {
+        long n = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) n += snapshot[i] = counts.get(i);
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    static int bucketOf(long v) {
+        if (v < SUB) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - (SUB_BITS - 1);
+        return (shift << (SUB_BITS - 1)) + (int) (v >>> shift);
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB) return bucket;
+        int shift = (bucket >> (SUB_BITS - 1)) - 1;
+        long mantissa = (bucket & (SUB / 2 - 1)) + SUB / 2;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
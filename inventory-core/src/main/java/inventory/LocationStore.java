@@ -0,0 +1,130 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-location stock, partitioned by location: each site has its own map of product rows, so rows for
+ * different sites never share a map bin or a counter. Rows change under the owning product's stripe
+ * lock in {@link InventoryService}, together with the product's total quantity, which is always the sum
+ * of its rows; reads are lock-free. Cross-site totals and low-stock lists are aggregated in parallel:
+ * partitions side by side on the fork/join pool, each one split again by its map's spliterator.
+ */
+public final class LocationStore {
+    static final String DEFAULT = "MAIN";
+
+    private static final class Row {
+        volatile int quantity;
+        volatile int minStockLevel;
+    }
+
+    private final ConcurrentMap<String, ConcurrentHashMap<String, Row>> partitions = new ConcurrentHashMap<>();
+
+    /** Trims {@code location}; null or blank means {@link #DEFAULT}. */
+    static String normalize(String location) {
+        return location == null || location.isBlank() ? DEFAULT : location.trim();
+    }
+
+    int quantity(String productId, String location) {
+        Row r = row(productId, location, false);
+        return r == null ? 0 : r.quantity;
+    }
+
+    // the mutators below run under productId's stripe lock
+    void add(String productId, String location, int delta) {
+        Row r = row(productId, location, true);
+        r.quantity += delta;
+    }
+    void set(String productId, String location, int quantity) {
+        row(productId, location, true).quantity = quantity;
+    }
+    void setMinStock(String productId, String location, int min) {
+        row(productId, location, true).minStockLevel = min;
+    }
+    void removeProduct(String productId) {
+        for (Map<String, Row> rows : partitions.values()) rows.remove(productId);
+    }
+
+    /** The product's rows at every location that has stocked it, by location name. */
+    List<StockLevel> levels(String productId) {
+        List<StockLevel> res = new ArrayList<>();
+        partitions.forEach((location, rows) -> {
+            Row r = rows.get(productId);
+            if (r != null) res.add(new StockLevel(productId, location, r.quantity, r.minStockLevel));
+        });
+        res.sort(Comparator.comparing(StockLevel::getLocation));
+        return res;
+    }
+
+    int total(String productId) {
+        int sum = 0;
+        for (Map<String, Row> rows : partitions.values()) {
+            Row r = rows.get(productId);
+            if (r != null) sum += r.quantity;
+        }
+        return sum;
+    }
+
+    SortedSet<String> locations() { return new TreeSet<>(partitions.keySet()); }
+
+    /** Every row at {@code location}, by product ID. */
+    List<StockLevel> at(String location) {
+        Map<String, Row> rows = partitions.getOrDefault(location, new ConcurrentHashMap<>());
+        List<StockLevel> res = new ArrayList<>(rows.size());
+        rows.forEach((id, r) -> res.add(new StockLevel(id, location, r.quantity, r.minStockLevel)));
+        res.sort(Comparator.comparing(StockLevel::getProductId));
+        return res;
+    }
+
+    /**
+     * Totals per location, by location name: rows stocked there, items, value at each product's current
+     * price, and rows at or below their location minimum.
+     */
+    Map<String, InventoryTotals> totals(Function<String, Product> products) {
+        Map<String, InventoryTotals> res = new ConcurrentSkipListMap<>();
+        partitions.entrySet().parallelStream().forEach(e -> {
+            long[] s = e.getValue().entrySet().parallelStream().collect(() -> new long[4], (acc, row) -> {
+                Product p = products.apply(row.getKey());
+                if (p == null) return; // deleted while we scan
+                int qty = row.getValue().quantity;
+                acc[0]++;
+                acc[1] += qty;
+                acc[2] += Math.round(p.getPrice() * 100) * qty;
+                if (qty <= row.getValue().minStockLevel) acc[3]++;
+            }, (a, b) -> {
+                for (int i = 0; i < 4; i++) a[i] += b[i];
+            });
+            res.put(e.getKey(), new InventoryTotals(s[0], s[1], s[2], s[3]));
+        });
+        return new TreeMap<>(res);
+    }
+
+    /** Rows at or below their location minimum across all locations, by location then product ID. */
+    List<StockLevel> lowStock() {
+        List<StockLevel> res = new ArrayList<>();
+        partitions.entrySet().parallelStream()
+                .map(e -> e.getValue().entrySet().parallelStream()
+                        .filter(row -> row.getValue().quantity <= row.getValue().minStockLevel)
+                        .map(row -> new StockLevel(row.getKey(), e.getKey(), row.getValue().quantity, row.getValue().minStockLevel))
+                        .collect(Collectors.toList()))
+                .forEachOrdered(res::addAll);
+        res.sort(Comparator.comparing(StockLevel::getLocation).thenComparing(StockLevel::getProductId));
+        return res;
+    }
+
+    private Row row(String productId, String location, boolean create) {
+        Map<String, Row> rows = create ? partitions.computeIfAbsent(location, l -> new ConcurrentHashMap<>()) : partitions.get(location);
+        if (rows == null) return null;
+        return create ? rows.computeIfAbsent(productId, id -> new Row()) : rows.get(productId);
+    }
+}
@@ -0,0 +1,28 @@
+package inventory;
+
+/** Raised when a product drops to or below its minimum stock level, with a suggested reorder quantity. */
+public final class LowStockAlert {
+    final String productId;
+    final String name;
+    final int quantity;
+    final int minStockLevel;
+    final double dailyOutRate;
+    final int suggestedReorder;
+    final long timestamp;
+
+    LowStockAlert(String productId, String name, int quantity, int minStockLevel, double dailyOutRate, int suggestedReorder, long timestamp) {
+        this.productId = productId; this.name = name; this.quantity = quantity; this.minStockLevel = minStockLevel;
+        this.dailyOutRate = dailyOutRate; this.suggestedReorder = suggestedReorder; this.timestamp = timestamp;
+    }
+    public String getProductId() { return productId; }
+    public String getName() { return name; }
+    public int getQuantity() { return quantity; }
+    public int getMinStockLevel() { return minStockLevel; }
+    /** Recent OUT quantity per day, decayed over about {@link LowStockAlerts#VELOCITY_DAYS} days. */
+    public double getDailyOutRate() { return dailyOutRate; }
+    public int getSuggestedReorder() { return suggestedReorder; }
+    public long getTimestamp() { return timestamp; }
+    @Override public String toString() {
+        return "%s (%s): %d left, min %d, ~%.1f/day out, reorder %d".formatted(name, productId, quantity, minStockLevel, dailyOutRate, suggestedReorder);
+    }
+}
@@ -0,0 +1,119 @@
+package inventory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Turns LOW_STOCK_ENTERED events into alerts, notifying at most once per product per debounce window.
+ * OUT velocity is an exponentially decayed sum of OUT quantities, updated in O(1) per movement on the
+ * event dispatcher thread; the first time a product needs a suggestion the sum is rebuilt from the
+ * transaction history, so demand from before the engine started counts too. A suggestion tops stock up
+ * to the minimum plus {@code coverDays} of that demand, and to at least twice the minimum.
+ */
+public final class LowStockAlerts implements InventoryListener {
+    static final double VELOCITY_DAYS = 7;
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final double TAU_MILLIS = VELOCITY_DAYS * DAY_MILLIS;
+
+    private static final class Velocity {
+        double outSum;      // decayed OUT quantity as of sumMillis
+        long sumMillis;
+        boolean seeded;
+        long lastNotified;  // 0 = never
+
+        double decayedSum(long now) { return outSum * Math.exp(-(now - sumMillis) / TAU_MILLIS); }
+        void addOut(int qty, long now) {
+            outSum = decayedSum(now) + qty;
+            sumMillis = now;
+        }
+        double dailyRate(long now) { return decayedSum(now) / VELOCITY_DAYS; }
+    }
+
+    private final InventoryService service;
+    private final long debounceMillis;
+    private final int coverDays;
+    private final Map<String, Velocity> velocities = new HashMap<>(); // dispatcher thread only
+    private final ConcurrentMap<String, LowStockAlert> active = new ConcurrentHashMap<>();
+    private final List<Consumer<LowStockAlert>> listeners = new CopyOnWriteArrayList<>();
+
+    LowStockAlerts(InventoryService service, long debounceMillis, int coverDays) {
+        this.service = service;
+        this.debounceMillis = debounceMillis;
+        this.coverDays = coverDays;
+    }
+
+    /** Called on the event dispatcher thread for each alert that is not debounced. */
+    public void addAlertListener(Consumer<LowStockAlert> l) { listeners.add(l); }
+    public void removeAlertListener(Consumer<LowStockAlert> l) { listeners.remove(l); }
+
+    /** Latest alert for each product that is still low, including ones whose notification was debounced. */
+    public Collection<LowStockAlert> getActiveAlerts() { return Collections.unmodifiableCollection(active.values()); }
+    public LowStockAlert getActiveAlert(String productId) { return active.get(productId); }
+
+    @Override public void onChanges(List<InventoryEvent> events) {
+        for (InventoryEvent e : events) {
+            switch (e.type) {
+                case STOCK_MOVED:
+                    if (e.delta < 0) velocity(e.productId).addOut(-e.delta, e.timestamp);
+                    break;
+                case LOW_STOCK_ENTERED:
+                    entered(e);
+                    break;
+                case LOW_STOCK_CLEARED:
+                    active.remove(e.productId);
+                    break;
+                case PRODUCT_DELETED:
+                    velocities.remove(e.productId);
+                    active.remove(e.productId);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void entered(InventoryEvent e) {
+        Product p = service.getProduct(e.productId);
+        if (p == null || !p.isLowStock()) return; // recovered since; a later event covers it
+        Velocity v = velocity(e.productId);
+        if (!v.seeded) seed(e.productId, v, e.timestamp);
+        double rate = v.dailyRate(e.timestamp);
+        int min = p.getMinStockLevel(), qty = p.getQuantity();
+        int target = Math.max(2 * min, min + (int) Math.ceil(rate * coverDays));
+        LowStockAlert alert = new LowStockAlert(p.getProductId(), p.getName(), qty, min, rate, Math.max(0, target - qty), e.timestamp);
+        active.put(e.productId, alert);
+        if (v.lastNotified != 0 && e.timestamp - v.lastNotified < debounceMillis) return;
+        v.lastNotified = e.timestamp;
+        for (Consumer<LowStockAlert> l : listeners) {
+            try {
+                l.accept(alert);
+            } catch (RuntimeException ex) {
+                System.err.println("Low stock alert listener failed: " + ex);
+            }
+        }
+    }
+
+    private Velocity velocity(String productId) { return velocities.computeIfAbsent(productId, id -> new Velocity()); }
+
+    /** Rebuilds the decayed sum from the last four time constants of OUT history; runs once per product. */
+    private void seed(String productId, Velocity v, long now) {
+        TransactionQuery q = TransactionQuery.all().product(productId).type(TransactionType.OUT)
+                .since(now - (long) (4 * TAU_MILLIS));
+        double sum = 0;
+        for (long cursor = Long.MAX_VALUE; cursor >= 0; ) {
+            TransactionPage page = service.queryTransactions(q, cursor, 1024);
+            for (Transaction t : page.items) sum += t.getQuantity() * Math.exp(-(now - t.getEpochMillis()) / TAU_MILLIS);
+            cursor = page.nextCursor;
+        }
+        v.outSum = sum;
+        v.sumMillis = now;
+        v.seeded = true;
+    }
+}
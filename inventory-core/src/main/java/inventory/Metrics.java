@@ -0,0 +1,149 @@
+package inventory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Named operation metrics for one service, readable as snapshots, as a text dump, or over JMX as
+ * {@code inventory:type=Metrics} with one {@code <operation>.<statistic>} attribute per value.
+ */
+public final class Metrics {
+    private static final String[] STATS = {"count", "meanMicros", "p50Micros", "p90Micros", "p99Micros", "p999Micros", "maxMicros"};
+    static final String OBJECT_NAME = "inventory:type=Metrics";
+
+    private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentSkipListMap<>();
+
+    OperationMetrics operation(String name) {
+        return operations.computeIfAbsent(name, OperationMetrics::new);
+    }
+
+    /** Snapshots in operation-name order. */
+    List<OperationSnapshot> snapshot() {
+        List<OperationSnapshot> out = new ArrayList<>(operations.size());
+        for (OperationMetrics m : operations.values()) out.add(m.snapshot());
+        return out;
+    }
+
+    void reset() { operations.values().forEach(OperationMetrics::reset); }
+
+    /** Writes a table of every operation, latencies in microseconds, to {@code file}. */
+    void dump(Path file) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# inventory metrics ").append(Instant.now()).append('\n');
+        sb.append(String.format("%-28s %10s %10s %10s %10s %10s %10s %10s%n", "operation", "count", "mean_us", "p50_us", "p90_us", "p99_us", "p99.9_us", "max_us"));
+        for (OperationSnapshot s : snapshot()) {
+            sb.append(String.format("%-28s %10d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n", s.name, s.count, s.mean / 1e3,
+                    s.p50 / 1e3, s.p90 / 1e3, s.p99 / 1e3, s.p999 / 1e3, s.max / 1e3));
+        }
+        Files.writeString(file, sb, StandardCharsets.UTF_8);
+    }
+
+    /** Registers these metrics with the platform MBean server, replacing whatever was registered before. */
+    void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(new MBean(), name);
+        } catch (JMException e) {
+            System.err.println("Cannot register inventory metrics MBean: " + e);
+        }
+    }
+
+    private final class MBean implements DynamicMBean {
+        @Override public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            int dot = attribute.lastIndexOf('.');
+            OperationMetrics m = dot < 0 ? null : operations.get(attribute.substring(0, dot));
+            if (m == null) throw new AttributeNotFoundException(attribute);
+            OperationSnapshot s = m.snapshot();
+            switch (attribute.substring(dot + 1)) {
+                case "count": return s.count;
+                case "meanMicros": return s.mean / 1e3;
+                case "p50Micros": return s.p50 / 1e3;
+                case "p90Micros": return s.p90 / 1e3;
+                case "p99Micros": return s.p99 / 1e3;
+                case "p999Micros": return s.p999 / 1e3;
+                case "maxMicros": return s.max / 1e3;
+                default: throw new AttributeNotFoundException(attribute);
+            }
+        }
+
+        @Override public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String a : attributes) {
+                try {
+                    list.add(new Attribute(a, getAttribute(a)));
+                } catch (AttributeNotFoundException ignored) {
+                    // JMX convention: unknown attributes are left out
+                }
+            }
+            return list;
+        }
+
+        @Override public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override public Object invoke(String action, Object[] params, String[] signature) throws MBeanException {
+            try {
+                switch (action) {
+                    case "reset":
+                        reset();
+                        return null;
+                    case "dump":
+                        dump(Paths.get((String) params[0]));
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(action);
+                }
+            } catch (IOException | RuntimeException e) {
+                throw new MBeanException(e, action + " failed");
+            }
+        }
+
+        @Override public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attrs = new ArrayList<>();
+            for (String op : operations.keySet()) {
+                for (String stat : STATS) {
+                    attrs.add(new MBeanAttributeInfo(op + "." + stat, stat.equals("count") ? "long" : "double",
+                            stat + " of " + op, true, false, false));
+                }
+            }
+            MBeanOperationInfo[] ops = {
+                    new MBeanOperationInfo("reset", "Clears all counters and histograms",
+                            new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION),
+                    new MBeanOperationInfo("dump", "Writes all metrics to a text file",
+                            new MBeanParameterInfo[]{new MBeanParameterInfo("path", "java.lang.String", "Output file")},
+                            "void", MBeanOperationInfo.ACTION)
+            };
+            return new MBeanInfo(Metrics.class.getName(), "Inventory operation latencies",
+                    attrs.toArray(new MBeanAttributeInfo[0]), null, ops, null);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package inventory;
+
+/** Call count and latency of one named operation. Hold on to it; {@link Metrics#operation} is a map lookup. */
+public final class OperationMetrics {
+    final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    OperationMetrics(String name) { this.name = name; }
+
+    /** Records the time since {@code startNanos}, a value taken from {@link System#nanoTime()}. */
+    void recordSince(long startNanos) { latency.record(System.nanoTime() - startNanos); }
+    void record(long nanos) { latency.record(nanos); }
+
+    OperationSnapshot snapshot() {
+        return new OperationSnapshot(name, latency.count(), latency.mean(), latency.percentile(50),
+                latency.percentile(90), latency.percentile(99), latency.percentile(99.9), latency.max());
+    }
+    void reset() { latency.reset(); }
+}
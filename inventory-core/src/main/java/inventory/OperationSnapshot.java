@@ -0,0 +1,22 @@
+package inventory;
+
+/** Point-in-time view of an {@link OperationMetrics}; latencies in nanoseconds. */
+public final class OperationSnapshot {
+    final String name;
+    final long count;
+    final double mean;
+    final long p50, p90, p99, p999, max;
+
+    OperationSnapshot(String name, long count, double mean, long p50, long p90, long p99, long p999, long max) {
+        this.name = name; this.count = count; this.mean = mean;
+        this.p50 = p50; this.p90 = p90; this.p99 = p99; this.p999 = p999; this.max = max;
+    }
+    public String getName() { return name; }
+    public long getCount() { return count; }
+    public double getMean() { return mean; }
+    public long getP50() { return p50; }
+    public long getP90() { return p90; }
+    public long getP99() { return p99; }
+    public long getP999() { return p999; }
+    public long getMax() { return max; }
+}
@@ -0,0 +1,63 @@
+package inventory;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+public class Product {
+    // volatile so lock-free readers (tables, reports) see writes made under InventoryService's stripe locks
+    private final String productId;
+    private volatile String name;
+    private volatile String category;
+    private volatile double price;
+    private volatile int quantity;
+    private volatile int minStockLevel;
+    private volatile long lastUpdated; // epoch millis, so setters don't allocate a LocalDateTime
+    private long journalLsn; // LSN of the last journaled change; guarded by the product's stripe lock
+    // multi-version state, see ProductVersions: the version the current fields were committed at
+    // (PENDING while a writer changes them) and earlier states that open views may still read
+    private volatile long version = ProductVersions.PENDING;
+    private volatile ProductVersion older;
+    private volatile boolean deleted;
+
+    public Product(String productId, String name, String category, double price, int quantity, int minStockLevel) {
+        this(productId, name, category, price, quantity, minStockLevel, System.currentTimeMillis());
+    }
+    private Product(String productId, String name, String category, double price, int quantity, int minStockLevel,
+                    long lastUpdated) {
+        this.productId = productId;
+        this.name = name;
+        this.category = category;
+        this.price = price;
+        this.quantity = quantity;
+        this.minStockLevel = minStockLevel;
+        this.lastUpdated = lastUpdated;
+    }
+    public String getProductId() { return productId; }
+    public String getName() { return name; }
+    public String getCategory() { return category; }
+    public double getPrice() { return price; }
+    public int getQuantity() { return quantity; }
+    public int getMinStockLevel() { return minStockLevel; }
+    public LocalDateTime getLastUpdated() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(lastUpdated), ZoneId.systemDefault());
+    }
+    public void setName(String name) { this.name = name; touch(); }
+    public void setCategory(String category) { this.category = category; touch(); }
+    public void setPrice(double price) { this.price = price; touch(); }
+    public void setQuantity(int quantity) { this.quantity = quantity; touch(); }
+    public void setMinStockLevel(int minStockLevel) { this.minStockLevel = minStockLevel; touch(); }
+    public boolean isLowStock() { return quantity <= minStockLevel; }
+    public double getTotalValue() { return price * quantity; }
+    long getJournalLsn() { return journalLsn; }
+    void setJournalLsn(long lsn) { this.journalLsn = lsn; }
+    /** A detached copy of the current fields. */
+    Product copy() { return new Product(productId, name, category, price, quantity, minStockLevel, lastUpdated); }
+    long getVersion() { return version; }
+    void setVersion(long version) { this.version = version; }
+    ProductVersion getOlder() { return older; }
+    void setOlder(ProductVersion older) { this.older = older; }
+    boolean isDeleted() { return deleted; }
+    void setDeleted(boolean deleted) { this.deleted = deleted; }
+    private void touch() { this.lastUpdated = System.currentTimeMillis(); }
+}
@@ -0,0 +1,102 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Secondary indexes over the product table, maintained incrementally by {@link InventoryService} under
+ * the owning product's stripe lock: products by category, the set of low-stock products, and a sorted
+ * map of lower-cased names and IDs for prefix search. Each query costs O(result), not O(catalog).
+ */
+public class ProductIndex {
+    private static final char SEP = '\u0000';
+
+    private final ConcurrentMap<String, Set<String>> byCategory = new ConcurrentHashMap<>();
+    private final Set<String> lowStock = ConcurrentHashMap.newKeySet();
+    private final ConcurrentNavigableMap<String, String> byPrefix = new ConcurrentSkipListMap<>();
+
+    void add(Product p) {
+        String id = p.getProductId();
+        byCategory.computeIfAbsent(category(p.getCategory()), c -> ConcurrentHashMap.newKeySet()).add(id);
+        byPrefix.put(key(id, id), id);
+        byPrefix.put(key(p.getName(), id), id);
+        stockChanged(p);
+    }
+
+    void remove(Product p) {
+        String id = p.getProductId();
+        removeFromCategory(p.getCategory(), id);
+        byPrefix.remove(key(id, id));
+        byPrefix.remove(key(p.getName(), id));
+        lowStock.remove(id);
+    }
+
+    /** Call after a product's name, category or min stock level changed. */
+    void updated(Product p, String oldName, String oldCategory) {
+        String id = p.getProductId();
+        if (!Objects.equals(oldCategory, p.getCategory())) {
+            removeFromCategory(oldCategory, id);
+            byCategory.computeIfAbsent(category(p.getCategory()), c -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        if (!Objects.equals(oldName, p.getName())) {
+            byPrefix.remove(key(oldName, id));
+            byPrefix.put(key(p.getName(), id), id);
+        }
+        stockChanged(p);
+    }
+
+    /** Call after a product's quantity or min stock level changed. */
+    void stockChanged(Product p) {
+        if (p.isLowStock()) lowStock.add(p.getProductId());
+        else lowStock.remove(p.getProductId());
+    }
+
+    Set<String> lowStockIds() { return Collections.unmodifiableSet(lowStock); }
+
+    Set<String> idsInCategory(String category) {
+        Set<String> ids = byCategory.get(category(category));
+        return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+    }
+
+    Set<String> categories() { return Collections.unmodifiableSet(byCategory.keySet()); }
+
+    /** IDs of products whose ID or name starts with {@code prefix} (case-insensitive), in key order. */
+    List<String> search(String prefix, int limit) {
+        String from = prefix.toLowerCase(Locale.ROOT);
+        LinkedHashSet<String> ids = new LinkedHashSet<>();
+        for (String id : byPrefix.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+            if (ids.add(id) && ids.size() >= limit) break;
+        }
+        return new ArrayList<>(ids);
+    }
+
+    static boolean matches(Product p, String prefix) {
+        return p.getProductId().regionMatches(true, 0, prefix, 0, prefix.length())
+                || (p.getName() != null && p.getName().regionMatches(true, 0, prefix, 0, prefix.length()));
+    }
+
+    private void removeFromCategory(String category, String id) {
+        byCategory.computeIfPresent(category(category), (c, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    // the service stores neither null names nor null categories, but a stray one must not break the index
+    private static String category(String category) {
+        return category == null ? "" : category;
+    }
+
+    private static String key(String text, String id) {
+        return (text == null ? "" : text.toLowerCase(Locale.ROOT)) + SEP + id;
+    }
+}
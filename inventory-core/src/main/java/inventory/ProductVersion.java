@@ -0,0 +1,12 @@
+package inventory;
+
+/** An earlier state of a product, kept while an open {@link InventoryView} may still read it. */
+final class ProductVersion {
+    final Product value;
+    final long version;
+    ProductVersion next; // older; cut under the product's stripe lock once no open view needs it
+
+    ProductVersion(Product value, long version, ProductVersion next) {
+        this.value = value; this.version = version; this.next = next;
+    }
+}
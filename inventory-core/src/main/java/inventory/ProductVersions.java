@@ -0,0 +1,201 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Multi-version reads over the live product table. Every change commits at a version drawn from one
+ * clock, and an {@link InventoryView} reads the catalog as of the clock value when it was opened.
+ * Writers still update products in place; they copy a product's previous state only when an open view
+ * may need it, so with no views open a write costs a clock increment and two volatile stores. Copies
+ * are dropped as later writes pass them and when the last view that could read them closes.
+ * <p>
+ * A writer marks its products {@link #PENDING}, takes its version {@code v} from the clock and only then
+ * looks at the open views. A view registers its version and then re-reads the clock, retrying if it
+ * moved. So either the writer sees the view and keeps what it needs, or the view's version already
+ * covers the write. Once the old states are kept, the products are marked {@code -v} until the change
+ * commits: views older than {@code v} read past them, and only views that must see the change wait for
+ * it, which follows within the writer's stripe lock.
+ */
+final class ProductVersions {
+    static final long PENDING = Long.MAX_VALUE;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ConcurrentSkipListMap<Long, Integer> openViews = new ConcurrentSkipListMap<>(); // version -> count
+    private final Set<Product> versioned = ConcurrentHashMap.newKeySet(); // products holding older states
+    private final Set<Product> removed = ConcurrentHashMap.newKeySet();   // deleted, but visible to an open view
+    private final Map<String, Product> live;
+    private final Function<String, Object> lockFor;
+
+    ProductVersions(Map<String, Product> live, Function<String, Object> lockFor) {
+        this.live = live;
+        this.lockFor = lockFor;
+    }
+
+    /** Marks products loaded during recovery as committed before any view can open. */
+    void recovered(Collection<Product> products) {
+        for (Product p : products) p.setVersion(0);
+    }
+
+    /** Call before a new product is put in the live table, then {@link #begin} and {@link #commit} it. */
+    void inserting(Product p) {
+        p.setOlder(null);
+        p.setDeleted(false);
+        p.setVersion(PENDING);
+    }
+
+    /** Starts a change to {@code p} and returns the version it commits at; caller holds p's stripe lock. */
+    long begin(Product p) {
+        long before = p.getVersion();
+        p.setVersion(PENDING);
+        long v = clock.incrementAndGet();
+        preserve(p, before);
+        p.setVersion(-v);
+        return v;
+    }
+
+    /** {@link #begin(Product)} for products whose changes commit together; caller holds all their locks. */
+    long begin(List<Product> products) {
+        long[] before = new long[products.size()];
+        for (int i = 0; i < before.length; i++) {
+            before[i] = products.get(i).getVersion();
+            products.get(i).setVersion(PENDING);
+        }
+        long v = clock.incrementAndGet();
+        for (int i = 0; i < before.length; i++) {
+            preserve(products.get(i), before[i]);
+            products.get(i).setVersion(-v);
+        }
+        return v;
+    }
+
+    /** Flags {@code p} as deleted; call between {@link #begin} and removing it from the live table. */
+    void deleting(Product p) {
+        p.setDeleted(true);
+        if (p.getOlder() != null) removed.add(p);
+    }
+
+    void commit(Product p, long v) { p.setVersion(v); }
+
+    /** Opens a view at the current version, with the catalog totals as of that version. */
+    InventoryView open(InventoryTotals totals, Map<String, InventoryTotals> categories) {
+        for (;;) {
+            long v = clock.get();
+            openViews.merge(v, 1, Integer::sum);
+            if (clock.get() == v) return new InventoryView(this, v, totals, categories);
+            openViews.computeIfPresent(v, (k, n) -> n == 1 ? null : n - 1);
+        }
+    }
+
+    void release(long v) {
+        openViews.computeIfPresent(v, (k, n) -> n == 1 ? null : n - 1);
+        reclaim();
+    }
+
+    /** {@code id} as of {@code at}, or null if it did not exist then. */
+    Product read(String id, long at) {
+        Product p = live.get(id);
+        Product res = p == null ? null : readAt(p, at);
+        if (res != null) return res;
+        for (Product d : removed) {
+            if (d.getProductId().equals(id) && (res = readAt(d, at)) != null) return res;
+        }
+        return null;
+    }
+
+    /** Every product as of {@code at}, including ones deleted since. */
+    List<Product> readAll(long at) {
+        List<Product> res = new ArrayList<>(live.size());
+        for (Product p : live.values()) {
+            Product q = readAt(p, at);
+            if (q != null) res.add(q);
+        }
+        // a product deleted during the scan may have been read above as well; at most one state per ID is visible
+        Map<String, Product> gone = new HashMap<>();
+        for (Product d : removed) {
+            Product q = readAt(d, at);
+            if (q != null) gone.put(q.getProductId(), q);
+        }
+        if (!gone.isEmpty()) {
+            for (Product q : res) gone.remove(q.getProductId());
+            res.addAll(gone.values());
+        }
+        return res;
+    }
+
+    /**
+     * The state of {@code p} visible at {@code at}: a fresh copy of the live fields if they were committed
+     * by then, else the newest older state that was, else null.
+     */
+    private static Product readAt(Product p, long at) {
+        for (int spins = 0; ; spins++) {
+            long v = p.getVersion();
+            if (v == PENDING || (v < 0 && -v <= at)) {
+                if (spins < 64) Thread.onSpinWait();
+                else Thread.yield();
+                continue;
+            }
+            if (v >= 0 && v <= at) {
+                Product copy = p.isDeleted() ? null : p.copy();
+                if (p.getVersion() == v) return copy;
+                continue;
+            }
+            for (ProductVersion o = p.getOlder(); o != null; o = o.next) {
+                if (o.version <= at) return o.value;
+            }
+            return null;
+        }
+    }
+
+    // caller holds p's stripe lock and has just taken a version from the clock
+    private void preserve(Product p, long before) {
+        Map.Entry<Long, Integer> oldest = openViews.firstEntry();
+        if (oldest == null) {
+            if (p.getOlder() != null) p.setOlder(null);
+            return;
+        }
+        ProductVersion chain = p.getOlder();
+        Map.Entry<Long, Integer> newest = openViews.lastEntry();
+        if (before != PENDING && newest != null && newest.getKey() >= before) {
+            chain = new ProductVersion(p.copy(), before, chain);
+            versioned.add(p);
+        }
+        p.setOlder(prune(chain, oldest.getKey()));
+    }
+
+    /** Keeps the states newer than {@code oldest} and the newest one at or before it. */
+    private static ProductVersion prune(ProductVersion chain, long oldest) {
+        for (ProductVersion o = chain; o != null; o = o.next) {
+            if (o.version <= oldest) {
+                o.next = null;
+                break;
+            }
+        }
+        return chain;
+    }
+
+    /** Drops older states no open view can read; takes each affected product's stripe lock briefly. */
+    private void reclaim() {
+        if (versioned.isEmpty()) return;
+        long horizon = clock.incrementAndGet(); // views opening from here on are at or after it
+        Map.Entry<Long, Integer> first = openViews.firstEntry();
+        long oldest = first == null ? horizon : first.getKey();
+        for (Product p : versioned) {
+            synchronized (lockFor.apply(p.getProductId())) {
+                p.setOlder(p.getVersion() <= oldest ? null : prune(p.getOlder(), oldest));
+                if (p.getOlder() == null) {
+                    versioned.remove(p);
+                    removed.remove(p);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package inventory;
+
+/** Receives progress from long-running imports and exports; may be called from worker threads. */
+@FunctionalInterface
+public interface ProgressListener {
+    ProgressListener NONE = (done, total) -> {};
+    /** {@code total} is -1 when not known up front. */
+    void progress(long done, long total);
+}
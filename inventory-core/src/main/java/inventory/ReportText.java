@@ -0,0 +1,79 @@
+package inventory;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Append-only report text, stored as lines packed into large char chunks rather than one String per row.
+ * One thread writes while any number of viewers read: lines are published in batches through a volatile
+ * count, so a reader sees every line below {@link #lineCount()} fully written.
+ */
+public final class ReportText {
+    private static final int CHUNK_CHARS = 1 << 16;
+    private static final int PUBLISH_LINES = 256;
+
+    private char[][] chunks = new char[4][];
+    private int chunkCount, chunkUsed;
+    private int[] lineChunk = new int[1024];
+    private int[] lineStart = new int[1024];
+    private int[] lineLength = new int[1024];
+    private int written, widest;
+    private volatile int published;
+    private volatile boolean complete, cancelled;
+
+    /** Lines readable so far; grows while the report renders. */
+    int lineCount() { return published; }
+    boolean isComplete() { return complete; }
+    /** Length of the longest line written so far, for sizing a viewer. */
+    int maxLineLength() { return widest; }
+    /** Asks the writer to stop; its next publish throws {@link CancellationException}. */
+    void cancel() { cancelled = true; }
+    boolean isCancelled() { return cancelled; }
+
+    String line(int i) {
+        if (i < 0 || i >= published) throw new IndexOutOfBoundsException("line " + i + " of " + published);
+        return new String(chunks[lineChunk[i]], lineStart[i], lineLength[i]);
+    }
+
+    void appendLine(char[] buf, int off, int len) {
+        if (chunkCount == 0 || chunkUsed + len > chunks[chunkCount - 1].length) newChunk(len);
+        if (written == lineStart.length) {
+            int n = written * 2;
+            lineChunk = Arrays.copyOf(lineChunk, n);
+            lineStart = Arrays.copyOf(lineStart, n);
+            lineLength = Arrays.copyOf(lineLength, n);
+        }
+        System.arraycopy(buf, off, chunks[chunkCount - 1], chunkUsed, len);
+        lineChunk[written] = chunkCount - 1;
+        lineStart[written] = chunkUsed;
+        lineLength[written] = len;
+        chunkUsed += len;
+        widest = Math.max(widest, len);
+        if (++written % PUBLISH_LINES == 0) publish();
+    }
+
+    /** Publishes the remaining lines and marks the report finished. */
+    void complete() {
+        publish();
+        complete = true;
+    }
+
+    private void publish() {
+        published = written;
+        if (cancelled) throw new CancellationException("report cancelled");
+    }
+
+    private void newChunk(int len) {
+        if (chunkCount == chunks.length) chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        chunks[chunkCount++] = new char[Math.max(CHUNK_CHARS, len)];
+        chunkUsed = 0;
+    }
+
+    /** The published lines joined with newlines. */
+    @Override public String toString() {
+        int n = published;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) sb.append(chunks[lineChunk[i]], lineStart[i], lineLength[i]).append('\n');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package inventory;
+
+import java.util.Arrays;
+
+/**
+ * Builds report lines in a reusable buffer and hands each finished line to a {@link ReportText}. Numbers,
+ * money and percentages are written digit by digit, so rendering a row parses no format string and
+ * allocates nothing.
+ */
+final class ReportWriter {
+    private final ReportText out;
+    private char[] line = new char[256];
+    private int len;
+
+    ReportWriter(ReportText out) { this.out = out; }
+
+    /** Current position in the line, for {@link #alignRight}. */
+    int mark() { return len; }
+
+    ReportWriter text(String s) {
+        int n = s.length();
+        ensure(n);
+        s.getChars(0, n, line, len);
+        len += n;
+        return this;
+    }
+
+    ReportWriter text(char c) {
+        ensure(1);
+        line[len++] = c;
+        return this;
+    }
+
+    ReportWriter number(long v) {
+        if (v == Long.MIN_VALUE) return text(Long.toString(v));
+        if (v < 0) {
+            text('-');
+            v = -v;
+        }
+        int digits = 1;
+        for (long t = v; t >= 10; t /= 10) digits++;
+        ensure(digits);
+        for (int i = len + digits - 1; i >= len; i--, v /= 10) line[i] = (char) ('0' + v % 10);
+        len += digits;
+        return this;
+    }
+
+    /** {@code cents} as units with two decimals, e.g. {@code -1234} as {@code -12.34}. */
+    ReportWriter money(long cents) {
+        if (cents < 0) text('-');
+        long abs = Math.abs(cents);
+        return number(abs / 100).text('.').twoDigits(abs % 100);
+    }
+
+    /** {@code part / whole} as a percentage with two decimals. */
+    ReportWriter percent(long part, long whole) {
+        long basisPoints = whole == 0 ? 0 : Math.round(part * 10000.0 / whole);
+        return money(basisPoints).text('%');
+    }
+
+    /** Right-aligns the text written since {@code mark} in a field {@code width} wide. */
+    ReportWriter alignRight(int mark, int width) {
+        int pad = width - (len - mark);
+        if (pad <= 0) return this;
+        ensure(pad);
+        System.arraycopy(line, mark, line, mark + pad, len - mark);
+        Arrays.fill(line, mark, mark + pad, ' ');
+        len += pad;
+        return this;
+    }
+
+    /** Pads with spaces up to column {@code column}. */
+    ReportWriter padTo(int column) {
+        int pad = column - len;
+        if (pad <= 0) return this;
+        ensure(pad);
+        Arrays.fill(line, len, len + pad, ' ');
+        len += pad;
+        return this;
+    }
+
+    void endLine() {
+        out.appendLine(line, 0, len);
+        len = 0;
+    }
+
+    void line(String s) { text(s).endLine(); }
+
+    void finish() {
+        if (len > 0) endLine();
+        out.complete();
+    }
+
+    private ReportWriter twoDigits(long v) {
+        ensure(2);
+        line[len++] = (char) ('0' + v / 10);
+        line[len++] = (char) ('0' + v % 10);
+        return this;
+    }
+
+    private void ensure(int n) {
+        if (len + n > line.length) line = Arrays.copyOf(line, Math.max(line.length * 2, len + n));
+    }
+}
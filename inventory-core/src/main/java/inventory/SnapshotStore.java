@@ -0,0 +1,206 @@
+package inventory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point-in-time images of the product table that bound how much journal has to be replayed on startup.
+ * <p>
+ * A snapshot is taken without pausing writers: the start LSN is read first, then each product is copied
+ * under its own stripe lock together with the LSN of its last journaled change. On load, journal records
+ * below the start LSN are ignored and records at or below a product's stored LSN are already reflected in
+ * it, so replay is idempotent even though the image is fuzzy across products.
+ * <p>
+ * Files are written to a temp name, fsynced and atomically renamed to {@code snapshot-<startLsn>.bin};
+ * a CRC32 trailer rejects partial writes. Each also records the history archive index at its start LSN:
+ * transactions archived from there on may be in the replayed journal too. Stock timelines are stored as
+ * their checkpoints and in-memory tail, with the {@link TimelineArchive} length they refer to.
+ */
+class SnapshotStore {
+    private static final int MAGIC = 0x494E5653; // "INVS"
+    private static final int VERSION = 5; // 2 added each product's stock per location, 3 the stock timelines, 4 the history mark,
+                                          // 5 timeline checkpoints and the timeline archive length
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final Path dir;
+
+    SnapshotStore(Path dir) { this.dir = dir; }
+
+    static final class Snapshot {
+        final long startLsn;
+        final long nextTxnSeq;
+        final List<Product> products;
+        final List<StockLevel> levels;
+        final Map<String, StockTimeline.Image> timelines; // empty before version 3, no checkpoints before 5
+        final long historyMark;                           // TransactionHistory#mark at startLsn; 0 before version 4
+        final long timelineLength;                        // TimelineArchive#length; 0 before version 5
+        final long takenAt;                               // file time, epoch millis
+        Snapshot(long startLsn, long nextTxnSeq, List<Product> products, List<StockLevel> levels,
+                 Map<String, StockTimeline.Image> timelines, long historyMark, long timelineLength, long takenAt) {
+            this.startLsn = startLsn; this.nextTxnSeq = nextTxnSeq; this.products = products; this.levels = levels;
+            this.timelines = timelines; this.historyMark = historyMark; this.timelineLength = timelineLength;
+            this.takenAt = takenAt;
+        }
+    }
+
+    /** Reads the newest snapshot, or returns null if none has been written yet. */
+    Snapshot loadLatest() throws IOException {
+        Path latest = null;
+        long best = -1;
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path p : ds) {
+                long lsn = startLsnOf(p);
+                if (lsn > best) { best = lsn; latest = p; }
+            }
+        }
+        if (latest == null) return null;
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(latest), 1 << 16), crc))) {
+            int version;
+            if (in.readInt() != MAGIC || (version = in.readInt()) < 1 || version > VERSION) throw new IOException("Not a snapshot: " + latest);
+            long startLsn = in.readLong();
+            List<Product> products = new ArrayList<>();
+            List<StockLevel> levels = new ArrayList<>();
+            while (in.readBoolean()) {
+                Product p = new Product(in.readUTF(), in.readUTF(), in.readUTF(), in.readDouble(), in.readInt(), in.readInt());
+                p.setJournalLsn(in.readLong());
+                products.add(p);
+                if (version == 1) {
+                    if (p.getQuantity() != 0) levels.add(new StockLevel(p.getProductId(), LocationStore.DEFAULT, p.getQuantity(), 0));
+                    continue;
+                }
+                for (int n = in.readInt(); n > 0; n--) levels.add(new StockLevel(p.getProductId(), in.readUTF(), in.readInt(), in.readInt()));
+            }
+            Map<String, StockTimeline.Image> timelines = new HashMap<>();
+            while (version >= 3 && in.readBoolean()) {
+                String id = in.readUTF();
+                long[] checkpoints = new long[version >= 5 ? 2 * in.readInt() : 0];
+                for (int i = 0; i < checkpoints.length; i++) checkpoints[i] = in.readLong();
+                long[] pairs = new long[2 * in.readInt()];
+                for (int i = 0; i < pairs.length; i += 2) {
+                    pairs[i] = in.readLong();
+                    pairs[i + 1] = in.readInt();
+                }
+                timelines.put(id, new StockTimeline.Image(checkpoints, pairs));
+            }
+            long nextTxnSeq = in.readLong();
+            long historyMark = version >= 4 ? in.readLong() : 0;
+            long timelineLength = version >= 5 ? in.readLong() : 0;
+            long expected = crc.getValue();
+            if (in.readLong() != expected) throw new IOException("Snapshot checksum mismatch: " + latest);
+            return new Snapshot(startLsn, nextTxnSeq, products, levels, timelines, historyMark, timelineLength,
+                    Files.getLastModifiedTime(latest).toMillis());
+        }
+    }
+
+    /** Starts a snapshot whose image covers every journal record below {@code startLsn}. */
+    Writer begin(long startLsn) throws IOException {
+        return new Writer(startLsn);
+    }
+
+    final class Writer implements Closeable {
+        private final long startLsn;
+        private final Path tmp;
+        private final FileOutputStream file;
+        private final CRC32 crc = new CRC32();
+        private final DataOutputStream out;
+        private int count;
+        private boolean productsDone, committed;
+
+        private Writer(long startLsn) throws IOException {
+            this.startLsn = startLsn;
+            this.tmp = dir.resolve(PREFIX + startLsn + SUFFIX + ".tmp");
+            this.file = new FileOutputStream(tmp.toFile());
+            this.out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(startLsn);
+        }
+
+        void add(String id, String name, String category, double price, int qty, int minStock, long lsn,
+                 List<StockLevel> levels) throws IOException {
+            out.writeBoolean(true);
+            out.writeUTF(id); out.writeUTF(name); out.writeUTF(category);
+            out.writeDouble(price); out.writeInt(qty); out.writeInt(minStock);
+            out.writeLong(lsn);
+            out.writeInt(levels.size());
+            for (StockLevel l : levels) {
+                out.writeUTF(l.getLocation()); out.writeInt(l.getQuantity()); out.writeInt(l.getMinStockLevel());
+            }
+            count++;
+        }
+
+        /**
+         * Adds one product's stock timeline; call after every {@link #add}. Copied after its product, a
+         * timeline may already hold changes from records that replay applies again; replay re-appends them
+         * in order, so once recovery ends every answer is the same.
+         */
+        void timeline(String id, StockTimeline.Image image) throws IOException {
+            if (!productsDone) {
+                out.writeBoolean(false);
+                productsDone = true;
+            }
+            out.writeBoolean(true);
+            out.writeUTF(id);
+            out.writeInt(image.checkpoints.length / 2);
+            for (long c : image.checkpoints) out.writeLong(c);
+            long[] pairs = image.pairs;
+            out.writeInt(pairs.length / 2);
+            for (int i = 0; i < pairs.length; i += 2) {
+                out.writeLong(pairs[i]);
+                out.writeInt((int) pairs[i + 1]);
+            }
+        }
+
+        /** Makes the snapshot durable and visible, then drops older snapshots. Returns the product count. */
+        int commit(long nextTxnSeq, long historyMark, long timelineLength) throws IOException {
+            if (!productsDone) out.writeBoolean(false);
+            out.writeBoolean(false);
+            out.writeLong(nextTxnSeq);
+            out.writeLong(historyMark);
+            out.writeLong(timelineLength);
+            out.flush();
+            out.writeLong(crc.getValue());
+            out.flush();
+            file.getFD().sync();
+            out.close();
+            Path target = dir.resolve(PREFIX + startLsn + SUFFIX);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            committed = true;
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+                for (Path p : ds) if (startLsnOf(p) < startLsn) Files.deleteIfExists(p);
+            }
+            return count;
+        }
+
+        @Override public void close() throws IOException {
+            if (committed) return;
+            out.close();
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static long startLsnOf(Path p) {
+        String n = p.getFileName().toString();
+        return Long.parseLong(n.substring(PREFIX.length(), n.length() - SUFFIX.length()));
+    }
+}
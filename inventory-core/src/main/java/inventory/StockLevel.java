@@ -0,0 +1,19 @@
+package inventory;
+
+/** Stock of one product at one location, as of when it was read. */
+public final class StockLevel {
+    private final String productId;
+    private final String location;
+    private final int quantity;
+    private final int minStockLevel;
+
+    StockLevel(String productId, String location, int quantity, int minStockLevel) {
+        this.productId = productId; this.location = location; this.quantity = quantity; this.minStockLevel = minStockLevel;
+    }
+    public String getProductId() { return productId; }
+    public String getLocation() { return location; }
+    public int getQuantity() { return quantity; }
+    public int getMinStockLevel() { return minStockLevel; }
+    public boolean isLowStock() { return quantity <= minStockLevel; }
+    @Override public String toString() { return productId + "@" + location + " qty=" + quantity + " min=" + minStockLevel; }
+}
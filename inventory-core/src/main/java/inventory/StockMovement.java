@@ -0,0 +1,59 @@
+package inventory;
+
+import java.util.Locale;
+
+/** One requested stock change, as submitted to {@link InventoryService#applyBatch}. */
+public final class StockMovement {
+    final String productId;
+    final TransactionType type;
+    final int quantity;
+    final String reason;
+    final String location;
+
+    StockMovement(String productId, TransactionType type, int quantity, String reason) {
+        this(productId, LocationStore.DEFAULT, type, quantity, reason);
+    }
+    StockMovement(String productId, String location, TransactionType type, int quantity, String reason) {
+        this.productId = productId;
+        this.location = LocationStore.normalize(location);
+        this.type = type;
+        this.quantity = quantity;
+        this.reason = reason == null || reason.isEmpty() ? (type == TransactionType.IN ? "Stock In" : "Stock Out") : reason;
+    }
+    static StockMovement in(String productId, int qty, String reason) { return new StockMovement(productId, TransactionType.IN, qty, reason); }
+    static StockMovement out(String productId, int qty, String reason) { return new StockMovement(productId, TransactionType.OUT, qty, reason); }
+    static StockMovement in(String productId, String location, int qty, String reason) {
+        return new StockMovement(productId, location, TransactionType.IN, qty, reason);
+    }
+    static StockMovement out(String productId, String location, int qty, String reason) {
+        return new StockMovement(productId, location, TransactionType.OUT, qty, reason);
+    }
+
+    public String getProductId() { return productId; }
+    public TransactionType getType() { return type; }
+    public int getQuantity() { return quantity; }
+    public String getReason() { return reason; }
+    public String getLocation() { return location; }
+
+    /**
+     * Parses {@code productId[@location],IN|OUT,quantity[,reason]}; without a location the movement is at
+     * {@link LocationStore#DEFAULT}. Throws IllegalArgumentException on malformed input.
+     */
+    static StockMovement parse(String line) {
+        String[] f = line.split(",", 4);
+        if (f.length < 3) throw new IllegalArgumentException("Expected productId[@location],IN|OUT,quantity[,reason]");
+        TransactionType type;
+        try {
+            type = TransactionType.valueOf(f[1].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Type must be IN or OUT: " + f[1].trim());
+        }
+        String id = f[0].trim(), location = null;
+        int at = id.indexOf('@');
+        if (at >= 0) {
+            location = id.substring(at + 1);
+            id = id.substring(0, at).trim();
+        }
+        return new StockMovement(id, location, type, Integer.parseInt(f[2].trim()), f.length > 3 ? f[3].trim() : null);
+    }
+}
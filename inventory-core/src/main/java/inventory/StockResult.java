@@ -0,0 +1,13 @@
+package inventory;
+
+public enum StockResult {
+    OK("OK"),
+    PRODUCT_NOT_FOUND("Product not found"),
+    INVALID_QUANTITY("Quantity must be positive"),
+    INSUFFICIENT_STOCK("Insufficient stock"),
+    BATCH_TOO_LARGE("Batch too large for one journal record; split it");
+
+    private final String message;
+    StockResult(String message) { this.message = message; }
+    public String getMessage() { return message; }
+}
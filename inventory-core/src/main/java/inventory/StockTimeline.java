@@ -0,0 +1,165 @@
+package inventory;
+
+import java.util.Arrays;
+
+/**
+ * One product's total quantity over time: the balance after every change, as (epoch millis, balance)
+ * pairs in time order. Since every entry is a full balance, "quantity at t" is a binary search with no
+ * deltas to sum. Times are clamped to never go backwards, so a clock step back cannot unsort the pairs.
+ * {@link #ABSENT} marks a deletion.
+ * <p>
+ * With a {@link TimelineArchive}, only the newest {@link #SEGMENT} pairs stay in memory. Older ones are
+ * moved to the archive a segment at a time, and memory (and snapshots) keep one checkpoint per segment:
+ * its first time and archive offset. A query then costs O(log segments + log SEGMENT) plus, for times
+ * before the in-memory tail, one segment read. Without an archive (in-memory services) every pair stays
+ * in memory.
+ * <p>
+ * One writer at a time (the product's stripe lock, or recovery); readers take no lock. Checkpoints and
+ * tail are published together as one immutable {@link State} whose tail only grows in place, and a new
+ * state is published before the entry count that covers it, so a reader that reads the count first
+ * always sees that many entries.
+ */
+final class StockTimeline {
+    static final int ABSENT = Integer.MIN_VALUE;
+    static final int SEGMENT = 32; // pairs per archived segment
+
+    /** What a snapshot keeps: (first millis, archive offset) per segment, and the in-memory pairs. */
+    static final class Image {
+        final long[] checkpoints;
+        final long[] pairs;
+        Image(long[] checkpoints, long[] pairs) { this.checkpoints = checkpoints; this.pairs = pairs; }
+    }
+
+    private static final class State {
+        final long[] segMillis, segOffset; // entries below segments are final
+        final int segments;
+        final long[] tail;
+        volatile int size; // pairs in tail
+        State(long[] segMillis, long[] segOffset, int segments, long[] tail, int size) {
+            this.segMillis = segMillis; this.segOffset = segOffset; this.segments = segments;
+            this.tail = tail; this.size = size;
+        }
+    }
+
+    private final TimelineArchive archive; // null: everything stays in memory
+    private volatile State state = new State(new long[0], new long[0], 0, new long[4], 0);
+
+    StockTimeline(TimelineArchive archive) {
+        this.archive = archive;
+    }
+
+    void append(long millis, int balance) {
+        State s = state;
+        int n = s.size;
+        if (n > 0) {
+            if (s.tail[2 * n - 1] == balance) return; // unchanged, e.g. a rename or a re-applied record
+            millis = Math.max(millis, s.tail[2 * n - 2]);
+        }
+        if (archive != null && n == SEGMENT) {
+            s = archived(s);
+            n = 0;
+        } else if (2 * n + 2 > s.tail.length) {
+            s = new State(s.segMillis, s.segOffset, s.segments, Arrays.copyOf(s.tail, s.tail.length * 2), n);
+            state = s;
+        }
+        s.tail[2 * n] = millis;
+        s.tail[2 * n + 1] = balance;
+        s.size = n + 1;
+    }
+
+    /** The balance in effect at {@code millis}: that of the last change at or before it, or ABSENT. */
+    int at(long millis) {
+        State s = state;
+        int n = s.size;
+        if (n > 0 && s.tail[0] <= millis) return (int) s.tail[2 * lastAtOrBefore(s.tail, n, millis) + 1];
+        int seg = lastAtOrBefore(s.segMillis, 1, s.segments, millis);
+        if (seg < 0) return ABSENT;
+        long[] pairs = archive.read(s.segOffset[seg], SEGMENT);
+        return (int) pairs[2 * lastAtOrBefore(pairs, SEGMENT, millis) + 1];
+    }
+
+    /**
+     * Closing balances at each of the ascending {@code times}, reading each archived segment they fall
+     * into once, so a month of daily closings costs O(days * log changes) plus at most one read per day.
+     */
+    int[] at(long[] times) {
+        State s = state;
+        int n = s.size;
+        int[] res = new int[times.length];
+        int loaded = -1;
+        long[] pairs = null;
+        for (int t = 0; t < times.length; t++) {
+            if (n > 0 && s.tail[0] <= times[t]) {
+                res[t] = (int) s.tail[2 * lastAtOrBefore(s.tail, n, times[t]) + 1];
+                continue;
+            }
+            int seg = lastAtOrBefore(s.segMillis, 1, s.segments, times[t]);
+            if (seg < 0) {
+                res[t] = ABSENT;
+                continue;
+            }
+            if (seg != loaded) {
+                pairs = archive.read(s.segOffset[seg], SEGMENT);
+                loaded = seg;
+            }
+            res[t] = (int) pairs[2 * lastAtOrBefore(pairs, SEGMENT, times[t]) + 1];
+        }
+        return res;
+    }
+
+    /** A consistent copy of the checkpoints and in-memory pairs, for snapshots. */
+    Image image() {
+        State s = state;
+        int n = s.size;
+        long[] checkpoints = new long[2 * s.segments];
+        for (int i = 0; i < s.segments; i++) {
+            checkpoints[2 * i] = s.segMillis[i];
+            checkpoints[2 * i + 1] = s.segOffset[i];
+        }
+        return new Image(checkpoints, Arrays.copyOf(s.tail, 2 * n));
+    }
+
+    /** Rebuilds a timeline from a snapshot image; pairs beyond a segment move to {@code archive}. */
+    static StockTimeline of(Image image, TimelineArchive archive) {
+        StockTimeline t = new StockTimeline(archive);
+        int segments = image.checkpoints.length / 2;
+        long[] segMillis = new long[segments], segOffset = new long[segments];
+        for (int i = 0; i < segments; i++) {
+            segMillis[i] = image.checkpoints[2 * i];
+            segOffset[i] = image.checkpoints[2 * i + 1];
+        }
+        t.state = new State(segMillis, segOffset, segments, new long[4], 0);
+        for (int i = 0; i < image.pairs.length; i += 2) t.append(image.pairs[i], (int) image.pairs[i + 1]);
+        return t;
+    }
+
+    /** Moves the full tail of {@code s} to the archive and publishes the state that replaces it. */
+    private State archived(State s) {
+        long offset = archive.append(s.tail, SEGMENT);
+        long[] segMillis = s.segMillis, segOffset = s.segOffset;
+        int k = s.segments;
+        if (k == segMillis.length) {
+            segMillis = Arrays.copyOf(segMillis, Math.max(4, 2 * k));
+            segOffset = Arrays.copyOf(segOffset, Math.max(4, 2 * k));
+        }
+        segMillis[k] = s.tail[0];
+        segOffset[k] = offset;
+        State next = new State(segMillis, segOffset, k + 1, new long[2 * SEGMENT], 0);
+        state = next;
+        return next;
+    }
+
+    /** Index of the last of the first {@code n} pairs at or before {@code millis}, or -1. */
+    private static int lastAtOrBefore(long[] pairs, int n, long millis) {
+        return lastAtOrBefore(pairs, 2, n, millis);
+    }
+    private static int lastAtOrBefore(long[] a, int stride, int n, long millis) {
+        int lo = 0, hi = n - 1, found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[stride * mid] <= millis) { found = mid; lo = mid + 1; }
+            else hi = mid - 1;
+        }
+        return found;
+    }
+}
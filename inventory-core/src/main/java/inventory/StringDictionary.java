@@ -0,0 +1,49 @@
+package inventory;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns strings to dense int codes so columnar storage can hold an int instead of a reference.
+ * Lookups are lock-free; only the first sighting of a string takes the lock. Returns -1 once
+ * {@code maxSize} distinct strings have been seen, so callers can fall back for unbounded inputs.
+ */
+final class StringDictionary {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK = 1 << CHUNK_BITS;
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private volatile String[][] chunks = new String[16][];
+    private int size; // guarded by this
+
+    StringDictionary(int maxSize) { this.maxSize = maxSize; }
+
+    int code(String s) {
+        Integer c = codes.get(s);
+        if (c != null) return c;
+        synchronized (this) {
+            c = codes.get(s);
+            if (c != null) return c;
+            if (size == maxSize) return -1;
+            int code = size++;
+            String[][] cs = chunks;
+            if ((code >>> CHUNK_BITS) == cs.length) cs = Arrays.copyOf(cs, cs.length * 2);
+            if (cs[code >>> CHUNK_BITS] == null) cs[code >>> CHUNK_BITS] = new String[CHUNK];
+            cs[code >>> CHUNK_BITS][code & (CHUNK - 1)] = s;
+            chunks = cs;
+            codes.put(s, code);
+            return code;
+        }
+    }
+
+    /** Code of {@code s} if it has been seen, else -1; never adds. */
+    int find(String s) {
+        Integer c = codes.get(s);
+        return c == null ? -1 : c;
+    }
+
+    String get(int code) { return chunks[code >>> CHUNK_BITS][code & (CHUNK - 1)]; }
+
+    synchronized int size() { return size; }
+}
@@ -0,0 +1,94 @@
+package inventory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only file of the segments {@link StockTimeline}s move out of memory: runs of (epoch millis,
+ * balance) pairs, 12 bytes each, addressed by file offset. Segments are written straight to the channel,
+ * so readers see them at once; {@link #force} makes them durable before a snapshot refers to them.
+ */
+class TimelineArchive implements Closeable {
+    private static final int PAIR_BYTES = 12;
+
+    private final FileChannel channel;
+    private long size; // guarded by this
+
+    private TimelineArchive(FileChannel channel, long size) {
+        this.channel = channel;
+        this.size = size;
+    }
+
+    /**
+     * Opens {@code file} and drops everything past {@code length}, the size the latest snapshot recorded:
+     * segments written after it are referenced by nothing and replay writes them again.
+     */
+    static TimelineArchive open(Path file, long length) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < length) {
+            channel.close();
+            throw new IOException("Timeline archive " + file + " is shorter than the snapshot expects");
+        }
+        channel.truncate(length);
+        return new TimelineArchive(channel, length);
+    }
+
+    /** Appends the first {@code count} pairs of {@code pairs}; returns the segment's offset. */
+    synchronized long append(long[] pairs, int count) {
+        ByteBuffer buf = ByteBuffer.allocate(count * PAIR_BYTES);
+        for (int i = 0; i < count; i++) buf.putLong(pairs[2 * i]).putInt((int) pairs[2 * i + 1]);
+        buf.flip();
+        long offset = size;
+        try {
+            while (buf.hasRemaining()) channel.write(buf, offset + buf.position());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        size += buf.limit();
+        return offset;
+    }
+
+    /** The {@code count} pairs of the segment at {@code offset}. */
+    long[] read(long offset, int count) {
+        ByteBuffer buf = ByteBuffer.allocate(count * PAIR_BYTES);
+        try {
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, offset + buf.position()) < 0) throw new IOException("Truncated timeline segment at " + offset);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buf.flip();
+        long[] pairs = new long[2 * count];
+        for (int i = 0; i < count; i++) {
+            pairs[2 * i] = buf.getLong();
+            pairs[2 * i + 1] = buf.getInt();
+        }
+        return pairs;
+    }
+
+    synchronized long length() { return size; }
+
+    void force() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
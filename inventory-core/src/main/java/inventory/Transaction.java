@@ -0,0 +1,52 @@
+package inventory;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * One stock movement. Stored compactly: the ID is kept as its sequence number and formatted only for
+ * display, the timestamp as epoch millis, and the type as an enum.
+ */
+public class Transaction {
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final long sequence;
+    private final String productId;
+    private final TransactionType type;
+    private final int quantity;
+    private final long epochMillis;
+    private final String reason;
+    public Transaction(String transactionId, String productId, String type, int quantity, String reason) {
+        this(parseSequence(transactionId), productId, TransactionType.valueOf(type), quantity, reason, System.currentTimeMillis());
+    }
+    Transaction(long sequence, String productId, TransactionType type, int quantity, String reason, long epochMillis) {
+        this.sequence = sequence;
+        this.productId = productId;
+        this.type = type;
+        this.quantity = quantity;
+        this.reason = reason;
+        this.epochMillis = epochMillis;
+    }
+    public String getTransactionId() { return formatId(sequence); }
+    /** Numeric part of the transaction ID; orders transactions and serves as the paging cursor. */
+    public long getSequence() { return sequence; }
+    public String getProductId() { return productId; }
+    public String getType() { return type.name(); }
+    public TransactionType getTransactionType() { return type; }
+    public int getQuantity() { return quantity; }
+    public LocalDateTime getTimestamp() { return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZONE); }
+    public long getEpochMillis() { return epochMillis; }
+    public String getReason() { return reason; }
+
+    static String formatId(long sequence) {
+        String digits = Long.toString(sequence);
+        if (digits.length() >= 6) return "TXN" + digits;
+        return "TXN000000".substring(0, 9 - digits.length()) + digits;
+    }
+    static long toEpochMillis(LocalDateTime t) { return t.atZone(ZONE).toInstant().toEpochMilli(); }
+    private static long parseSequence(String id) {
+        if (!id.startsWith("TXN")) throw new IllegalArgumentException("Transaction IDs look like TXN000123: " + id);
+        return Long.parseLong(id, 3, id.length(), 10);
+    }
+}
@@ -0,0 +1,226 @@
+package inventory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Append-only file of every transaction, in the order {@link TransactionHistory} archives them; records
+ * are addressed by index. Appends go through a buffer that {@link #flush} and queries write out. An
+ * in-memory sparse index (one entry per block of records, with its file offset and sequence/time bounds)
+ * lets paged queries walk the file backwards and skip blocks outside the requested range.
+ */
+class TransactionArchive implements Closeable {
+    private static final int BLOCK = 256;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final DataOutputStream out;
+
+    // guarded by this
+    private long size;
+    private int count;
+    private long[] blockOffset = new long[16], blockMinSeq = new long[16], blockMaxSeq = new long[16];
+    private long[] blockMinTs = new long[16], blockMaxTs = new long[16];
+
+    private TransactionArchive(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+        channel.position(size);
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+    }
+
+    static TransactionArchive open(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        return new TransactionArchive(file);
+    }
+
+    synchronized void append(Transaction t) {
+        try {
+            write(t);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Writes out buffered records; with {@code force}, also waits until they are on disk. */
+    synchronized void flush(boolean force) {
+        try {
+            out.flush();
+            if (force) channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized long count() { return count; }
+
+    /** The highest sequence archived, or 0 if the archive is empty. */
+    synchronized long maxSequence() {
+        long max = 0;
+        for (int b = 0, blocks = (count + BLOCK - 1) / BLOCK; b < blocks; b++) max = Math.max(max, blockMaxSeq[b]);
+        return max;
+    }
+
+    /** Feeds the records from index {@code from} on to {@code action}, oldest first. */
+    synchronized void forEach(long from, Consumer<Transaction> action) {
+        if (from >= count) return;
+        try {
+            out.flush();
+            int b = (int) (from / BLOCK);
+            long[] skip = {from - (long) b * BLOCK};
+            readFrom(blockOffset[b], size, (t, offset) -> {
+                if (skip[0] > 0) skip[0]--;
+                else action.accept(t);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Adds at least {@code limit} matches (if that many exist) with sequence below {@code cursor} and index
+     * below {@code before} to {@code hits}, newest blocks first.
+     */
+    void scan(TransactionQuery q, long cursor, int limit, long before, List<Transaction> hits) {
+        long fromMs = q.fromMillis, toMs = q.toMillis;
+        int found = 0;
+        boolean extra = false; // scan one block past the limit to absorb small reorderings between writers
+        synchronized (this) {
+            try {
+                out.flush();
+                long end = Math.min(count, before);
+                int blocks = (int) ((end + BLOCK - 1) / BLOCK);
+                for (int b = blocks - 1; b >= 0; b--) {
+                    if (blockMinSeq[b] >= cursor || blockMaxTs[b] < fromMs || blockMinTs[b] >= toMs) continue;
+                    long endOffset = b + 1 < blocks ? blockOffset[b + 1] : size;
+                    ByteBuffer buf = ByteBuffer.allocate((int) (endOffset - blockOffset[b]));
+                    channel.read(buf, blockOffset[b]);
+                    buf.flip();
+                    for (long index = (long) b * BLOCK; buf.hasRemaining() && index < end; index++) {
+                        Transaction t = readRecord(buf);
+                        if (t.getSequence() < cursor && q.matches(t)) { hits.add(t); found++; }
+                    }
+                    if (found >= limit) {
+                        if (extra) break;
+                        extra = true;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override public synchronized void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(Transaction t) throws IOException {
+        long ts = t.getEpochMillis();
+        index(size, t.getSequence(), ts);
+        int before = out.size();
+        out.writeLong(t.getSequence());
+        out.writeLong(ts);
+        out.writeBoolean(t.getTransactionType() == TransactionType.OUT);
+        out.writeInt(t.getQuantity());
+        writeString(t.getProductId());
+        writeString(t.getReason());
+        size += out.size() - before;
+        count++;
+    }
+
+    private void writeString(String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(Math.min(b.length, 0xFFFF));
+        out.write(b, 0, Math.min(b.length, 0xFFFF));
+    }
+
+    private void index(long offset, long seq, long ts) {
+        int b = count / BLOCK;
+        if (count % BLOCK == 0) {
+            if (b == blockOffset.length) {
+                int n = b * 2;
+                blockOffset = Arrays.copyOf(blockOffset, n); blockMinSeq = Arrays.copyOf(blockMinSeq, n);
+                blockMaxSeq = Arrays.copyOf(blockMaxSeq, n); blockMinTs = Arrays.copyOf(blockMinTs, n);
+                blockMaxTs = Arrays.copyOf(blockMaxTs, n);
+            }
+            blockOffset[b] = offset;
+            blockMinSeq[b] = blockMaxSeq[b] = seq;
+            blockMinTs[b] = blockMaxTs[b] = ts;
+        } else {
+            blockMinSeq[b] = Math.min(blockMinSeq[b], seq); blockMaxSeq[b] = Math.max(blockMaxSeq[b], seq);
+            blockMinTs[b] = Math.min(blockMinTs[b], ts); blockMaxTs[b] = Math.max(blockMaxTs[b], ts);
+        }
+    }
+
+    /** Rebuilds the sparse index from the file, truncating a torn final record. */
+    private void recover() throws IOException {
+        size = readFrom(0, channel.size(), (t, offset) -> {
+            index(offset, t.getSequence(), t.getEpochMillis());
+            count++;
+        });
+        channel.truncate(size);
+    }
+
+    /** Reads whole records from file offset {@code from} up to {@code end}; returns the offset after the last one. */
+    private long readFrom(long from, long end, ObjLongConsumer<Transaction> action) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(1 << 20);
+        long bufStart = from, readPos = from;
+        while (readPos < end) {
+            if (channel.read(buf, readPos) <= 0) break;
+            readPos = bufStart + buf.position();
+            buf.flip();
+            while (true) {
+                int start = buf.position();
+                Transaction t;
+                try {
+                    t = readRecord(buf);
+                } catch (BufferUnderflowException e) {
+                    buf.position(start);
+                    break;
+                }
+                action.accept(t, bufStart + start);
+            }
+            bufStart += buf.position();
+            buf.compact();
+            if (!buf.hasRemaining()) throw new IOException("Corrupt history record in " + file);
+        }
+        return bufStart;
+    }
+
+    private static Transaction readRecord(ByteBuffer in) {
+        long seq = in.getLong();
+        long ts = in.getLong();
+        TransactionType type = in.get() != 0 ? TransactionType.OUT : TransactionType.IN;
+        int qty = in.getInt();
+        String productId = readString(in), reason = readString(in);
+        return new Transaction(seq, productId, type, qty, reason, ts);
+    }
+    private static String readString(ByteBuffer in) {
+        int len = in.getShort() & 0xFFFF;
+        if (in.remaining() < len) throw new BufferUnderflowException();
+        byte[] b = new byte[len];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
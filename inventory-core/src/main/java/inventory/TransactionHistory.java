@@ -0,0 +1,276 @@
+package inventory;
+
+import java.io.Closeable;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded in-memory history of recent transactions plus an archive for everything older.
+ * <p>
+ * Entries are kept as a struct of arrays, allocated in chunks as the ring fills: sequence and epoch
+ * millis as longs, type as a byte, quantity as an int, and product ID and reason as codes into
+ * {@link StringDictionary}s (reasons beyond the dictionary's cap go to a side column). That is about
+ * 40 bytes per movement with no per-entry objects, so tens of millions fit in memory
+ * ({@code inventory.historyCapacity}).
+ * <p>
+ * Writers claim a slot with one atomic increment and publish it seqlock-style (position cleared,
+ * columns written, position set), so appends take no lock and readers skip slots that are mid-write.
+ * <p>
+ * A daemon thread copies every entry, in position order, to the {@link TransactionArchive}, so ring
+ * position {@code p} is archive record {@code base + p} and heap usage stays flat no matter how long the
+ * system runs. A slot is only overwritten once its entry is archived; a writer that laps the archiver
+ * archives the gap itself. Queries read the ring and then only the archive records older than it. On
+ * open, the ring is refilled from the archive's tail, so the recent history survives a restart.
+ * <p>
+ * Without an archive (in-memory services) there is no archiver thread and the ring simply overwrites
+ * its oldest entries.
+ */
+class TransactionHistory implements Closeable {
+    static final int DEFAULT_CAPACITY = 1 << 20;
+    private static final int MAX_CHUNK_BITS = 16;
+    private static final int MAX_REASONS = 1 << 16;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final class Chunk {
+        final AtomicLongArray positions = new AtomicLongArray(chunkSize);
+        final long[] sequence = new long[chunkSize];
+        final long[] millis = new long[chunkSize];
+        final byte[] type = new byte[chunkSize];
+        final int[] quantity = new int[chunkSize];
+        final int[] product = new int[chunkSize];
+        final int[] reason = new int[chunkSize];
+        final String[] rareReason = new String[chunkSize];
+        Chunk() { for (int i = 0; i < chunkSize; i++) positions.set(i, -1); }
+    }
+
+    private final int mask;
+    private final int chunkBits;
+    private final int chunkSize;
+    private final AtomicReferenceArray<Chunk> chunks;
+    private final AtomicLong claimed = new AtomicLong();
+    private final StringDictionary products = new StringDictionary(Integer.MAX_VALUE);
+    private final StringDictionary reasons = new StringDictionary(MAX_REASONS);
+    private final TransactionArchive archive; // null: memory only
+    private final long base;            // archive index of ring position 0
+    private volatile long archivedPos;  // positions below this are in the archive
+    private final Thread archiver;
+    private volatile boolean closed;
+
+    /** History kept only in the ring: the oldest entries are dropped, nothing touches disk. */
+    TransactionHistory(int capacity) {
+        this(capacity, null);
+    }
+
+    TransactionHistory(int capacity, TransactionArchive archive) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = cap - 1;
+        this.chunkBits = Math.min(MAX_CHUNK_BITS, Integer.numberOfTrailingZeros(cap));
+        this.chunkSize = 1 << chunkBits;
+        this.chunks = new AtomicReferenceArray<>(cap >>> chunkBits);
+        this.archive = archive;
+        if (archive == null) {
+            this.base = 0;
+            this.archiver = null;
+            return;
+        }
+        long archived = archive.count();
+        this.base = archived - Math.min(archived, cap);
+        archive.forEach(base, t -> store(claimed.getAndIncrement(), t.getSequence(), t.getProductId(),
+                t.getTransactionType(), t.getQuantity(), t.getReason(), t.getEpochMillis()));
+        this.archivedPos = claimed.get();
+        this.archiver = new Thread(this::archiveLoop, "history-archiver");
+        this.archiver.setDaemon(true);
+        this.archiver.start();
+    }
+
+    void add(long sequence, String productId, TransactionType type, int quantity, String reason, long epochMillis) {
+        long pos = claimed.getAndIncrement();
+        // the slot may still hold an entry the archiver has not reached; never wait on the archive monitor
+        // here, its holder may be spinning on this very position
+        if (archive != null && pos - archivedPos > mask) awaitArchived(pos - mask);
+        store(pos, sequence, productId, type, quantity, reason, epochMillis);
+    }
+
+    /** The last {@code limit} transactions still in memory (at most the capacity), oldest first. O(limit). */
+    List<Transaction> recent(int limit) {
+        long end = claimed.get();
+        long start = Math.max(0, end - Math.max(0, Math.min(limit, mask + 1L)));
+        ArrayList<Transaction> res = new ArrayList<>((int) (end - start));
+        for (long pos = start; pos < end; pos++) {
+            Transaction t = read(pos);
+            if (t != null) res.add(t);
+        }
+        return res;
+    }
+
+    /**
+     * Up to {@code limit} transactions matching {@code q} with a sequence below {@code cursor}, newest
+     * first, searching memory and then the archive. Start with {@code Long.MAX_VALUE}. Filters run on
+     * the primitive columns; only hits are materialized.
+     */
+    TransactionPage query(TransactionQuery q, long cursor, int limit) {
+        List<Transaction> hits = new ArrayList<>();
+        int productCode = q.productId == null ? -1 : products.find(q.productId);
+        long end = claimed.get();
+        long floor = Math.max(0, end - mask - 1); // oldest position the ring can still hold
+        if (q.productId == null || productCode >= 0) {
+            long stopAfter = Long.MIN_VALUE;
+            for (long pos = end - 1; pos >= floor && pos > stopAfter; pos--) {
+                int i = (int) (pos & mask);
+                Chunk c = chunks.get(i >>> chunkBits);
+                int j = i & (chunkSize - 1);
+                if (c == null || c.positions.get(j) != pos) continue;
+                if (c.sequence[j] >= cursor || c.millis[j] < q.fromMillis || c.millis[j] >= q.toMillis
+                        || (q.type != null && c.type[j] != q.type.ordinal())
+                        || (q.productId != null && c.product[j] != productCode)) continue;
+                Transaction t = read(pos);
+                if (t == null) continue;
+                hits.add(t);
+                // keep scanning a little past the limit: concurrent writers may land slightly out of order
+                if (hits.size() == limit) stopAfter = pos - 256;
+            }
+        }
+        if (hits.size() < limit && archive != null) {
+            awaitArchived(floor);
+            archive.scan(q, cursor, limit - hits.size(), base + floor, hits);
+        }
+        hits.sort(Comparator.comparingLong(Transaction::getSequence).reversed());
+        if (hits.size() <= limit) return new TransactionPage(hits, hits.size() < limit ? -1 : hits.get(hits.size() - 1).getSequence());
+        List<Transaction> page = new ArrayList<>(hits.subList(0, limit));
+        return new TransactionPage(page, page.get(limit - 1).getSequence());
+    }
+
+    /**
+     * Archive index the next transaction will get. Read while no {@link #add} is in flight, it splits the
+     * archive into what was added before and after.
+     */
+    long mark() { return base + claimed.get(); }
+
+    /** Sorted sequences of the archived transactions from archive index {@code from} on. */
+    long[] archivedSequences(long from) {
+        if (archive == null) return new long[0];
+        long[][] seqs = {new long[1024]};
+        int[] n = {0};
+        archive.forEach(from, t -> {
+            if (n[0] == seqs[0].length) seqs[0] = Arrays.copyOf(seqs[0], n[0] * 2);
+            seqs[0][n[0]++] = t.getSequence();
+        });
+        long[] res = Arrays.copyOf(seqs[0], n[0]);
+        Arrays.sort(res);
+        return res;
+    }
+
+    /**
+     * Sorted sequences of every transaction held: the whole archive, or without one, what the ring still
+     * holds. O(history).
+     */
+    long[] sequences() {
+        if (archive != null) {
+            awaitArchived(claimed.get());
+            return archivedSequences(0);
+        }
+        List<Transaction> held = recent(mask + 1);
+        long[] res = new long[held.size()];
+        for (int i = 0; i < res.length; i++) res[i] = held.get(i).getSequence();
+        Arrays.sort(res);
+        return res;
+    }
+
+    /** The highest sequence in the archive, or 0 without one. */
+    long maxArchivedSequence() { return archive == null ? 0 : archive.maxSequence(); }
+
+    /** Archives every transaction added so far and forces the archive to disk. */
+    void checkpoint() {
+        if (archive == null) return;
+        awaitArchived(claimed.get());
+        archive.flush(true);
+    }
+
+    @Override public void close() {
+        if (archive == null) return;
+        closed = true;
+        LockSupport.unpark(archiver);
+        try { archiver.join(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        checkpoint();
+        archive.close();
+    }
+
+    private void archiveLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(50_000_000L);
+            archiveAvailable(claimed.get());
+        }
+    }
+
+    /**
+     * Returns once every position below {@code upTo} is archived. The monitor is dropped between attempts,
+     * so a writer that claimed a slot below {@code upTo} and is itself waiting here can still get in.
+     */
+    private void awaitArchived(long upTo) {
+        for (int spins = 0; archivedPos < upTo; spins++) {
+            archiveAvailable(upTo);
+            if (archivedPos >= upTo) break;
+            if (spins < 64) Thread.onSpinWait();
+            else Thread.yield(); // the writer of the missing slot may need this core
+        }
+    }
+
+    /** Copies positions below {@code upTo} to the archive in order, stopping at the first slot still being written. */
+    private synchronized void archiveAvailable(long upTo) {
+        for (long pos = archivedPos; pos < upTo; pos++) {
+            Transaction t = read(pos);
+            if (t == null) return;
+            archive.append(t);
+            archivedPos = pos + 1;
+        }
+    }
+
+    private void store(long pos, long sequence, String productId, TransactionType type, int quantity, String reason, long epochMillis) {
+        int i = (int) (pos & mask);
+        Chunk c = chunk(i >>> chunkBits);
+        int j = i & (chunkSize - 1);
+        c.positions.getAndSet(j, -1); // full fence: readers must see the slot invalidated before any column changes
+        c.sequence[j] = sequence;
+        c.millis[j] = epochMillis;
+        c.type[j] = (byte) type.ordinal();
+        c.quantity[j] = quantity;
+        c.product[j] = products.code(productId);
+        int r = reasons.code(reason);
+        c.reason[j] = r;
+        c.rareReason[j] = r < 0 ? reason : null;
+        c.positions.set(j, pos);
+    }
+
+    private Chunk chunk(int index) {
+        Chunk c = chunks.get(index);
+        if (c == null) {
+            chunks.compareAndSet(index, null, new Chunk());
+            c = chunks.get(index);
+        }
+        return c;
+    }
+
+    private Transaction read(long pos) {
+        int i = (int) (pos & mask);
+        Chunk c = chunks.get(i >>> chunkBits);
+        if (c == null) return null;
+        int j = i & (chunkSize - 1);
+        if (c.positions.get(j) != pos) return null;
+        Transaction t = materialize(c, j);
+        VarHandle.acquireFence(); // column reads above must complete before the position is re-validated
+        return c.positions.get(j) == pos ? t : null;
+    }
+
+    private Transaction materialize(Chunk c, int j) {
+        int r = c.reason[j];
+        return new Transaction(c.sequence[j], products.get(c.product[j]), TYPES[c.type[j]], c.quantity[j],
+                r < 0 ? c.rareReason[j] : reasons.get(r), c.millis[j]);
+    }
+}
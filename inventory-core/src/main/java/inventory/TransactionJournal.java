@@ -0,0 +1,248 @@
+package inventory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log of inventory mutations, stored as fixed-size memory-mapped segment files
+ * named after the first LSN they contain. Each record is {@code [int length][int crc32][body]}.
+ * <p>
+ * Appends only copy into the mapped segment; a background flusher msyncs the dirty range. With
+ * {@code syncCommit} callers block in {@link #commit} until their LSN is durable, but every writer
+ * that arrives during one msync shares the next one (group commit). Without it the flusher syncs
+ * every {@code flushIntervalMillis} and a crash can lose at most that window.
+ * <p>
+ * On open, segments are scanned in order and the first short, zeroed or CRC-mismatched record marks
+ * the end of the log; anything after it in the tail segment is a torn write and gets overwritten.
+ */
+class TransactionJournal implements Closeable {
+    static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+    private static final int HEADER = 8;
+    private static final String SUFFIX = ".seg";
+
+    private final Path dir;
+    private final int segmentSize;
+    private final boolean syncCommit;
+    private final long flushIntervalMillis;
+    private ByteBuffer scratch = ByteBuffer.allocate(3 * 0x10000 + 64);
+    private final CRC32 crc = new CRC32();
+    private final Thread flusher;
+
+    // guarded by this
+    private MappedByteBuffer segment;
+    private volatile long segmentFirstLsn = 1;
+    private int position;
+    private int flushedPosition;
+    private long nextLsn = 1;
+    private boolean flushRequested;
+    private boolean closed;
+    private volatile long durableLsn;
+
+    private TransactionJournal(Path dir, int segmentSize, boolean syncCommit, long flushIntervalMillis) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.syncCommit = syncCommit;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Opens (or creates) the journal in {@code dir}, feeding every intact record from {@code fromLsn} on
+     * to {@code replay} in LSN order. Earlier records are only checksummed to locate the tail.
+     */
+    static TransactionJournal open(Path dir, boolean syncCommit, long fromLsn, Consumer<JournalRecord> replay) throws IOException {
+        return open(dir, DEFAULT_SEGMENT_SIZE, syncCommit, 5, fromLsn, replay);
+    }
+    static TransactionJournal open(Path dir, int segmentSize, boolean syncCommit, long flushIntervalMillis,
+                                   long fromLsn, Consumer<JournalRecord> replay) throws IOException {
+        Files.createDirectories(dir);
+        TransactionJournal j = new TransactionJournal(dir, segmentSize, syncCommit, flushIntervalMillis);
+        j.recover(fromLsn, replay);
+        j.flusher.start();
+        return j;
+    }
+
+    private void recover(long fromLsn, Consumer<JournalRecord> replay) throws IOException {
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            segment = map(segmentPath(1));
+            return;
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            MappedByteBuffer buf = map(segments.get(i));
+            segmentFirstLsn = firstLsnOf(segments.get(i));
+            nextLsn = Math.max(nextLsn, segmentFirstLsn); // earlier segments may have been compacted away
+            int pos = 0;
+            while (pos + HEADER <= buf.capacity()) {
+                int len = buf.getInt(pos);
+                if (len <= 0 || pos + HEADER + len > buf.capacity()) break;
+                ByteBuffer body = buf.slice(pos + HEADER, len);
+                crc.reset();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != buf.getInt(pos + 4)) break;
+                long lsn = body.getLong(0);
+                nextLsn = lsn + 1;
+                if (lsn >= fromLsn) replay.accept(JournalRecord.decode(body));
+                pos += HEADER + len;
+            }
+            segment = buf;
+            position = pos;
+        }
+        // anything past position in the tail is unacknowledged; clear its header so the next scan stops here
+        if (position + HEADER <= segment.capacity()) segment.putLong(position, 0L);
+        flushedPosition = position;
+        durableLsn = nextLsn - 1;
+    }
+
+    /** Copies {@code r} into the log and returns its LSN. Durability is decided by {@link #commit}. */
+    synchronized long append(JournalRecord r) {
+        if (closed) throw new IllegalStateException("Journal is closed");
+        r.lsn = nextLsn;
+        int bound = r.maxEncodedSize();
+        if (bound > scratch.capacity()) {
+            if (bound > maxRecordSize()) throw new IllegalArgumentException("Journal record too large: " + bound + " bytes");
+            scratch = ByteBuffer.allocate(bound);
+        }
+        scratch.clear();
+        r.encode(scratch);
+        scratch.flip();
+        int len = scratch.remaining();
+        if (position + HEADER + len > segment.capacity()) roll();
+        crc.reset();
+        crc.update(scratch.duplicate());
+        segment.putInt(position + 4, (int) crc.getValue());
+        segment.put(position + HEADER, scratch, 0, len);
+        segment.putInt(position, len); // length last: a record is visible to recovery only once complete
+        position += HEADER + len;
+        nextLsn++;
+        if (durableLsn == r.lsn - 1) notifyAll(); // flusher may be parked on an idle log
+        return r.lsn;
+    }
+
+    /** Blocks until {@code lsn} is on disk when running with sync commits; returns immediately otherwise. */
+    void commit(long lsn) {
+        if (syncCommit) awaitDurable(lsn);
+    }
+
+    synchronized void awaitDurable(long lsn) {
+        boolean interrupted = false;
+        while (durableLsn < lsn && !closed) {
+            if (!flushRequested) {
+                flushRequested = true;
+                notifyAll();
+            }
+            try { wait(); } catch (InterruptedException e) { interrupted = true; }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    synchronized long lastLsn() { return nextLsn - 1; }
+
+    /** Largest {@link JournalRecord#maxEncodedSize} that {@link #append} accepts: one record per segment at most. */
+    int maxRecordSize() { return segmentSize - HEADER; }
+
+    private void roll() {
+        segment.force();
+        try {
+            segment = map(segmentPath(nextLsn));
+            segmentFirstLsn = nextLsn;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        position = 0;
+        flushedPosition = 0;
+    }
+
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer seg;
+            int from, to;
+            long lsn;
+            synchronized (this) {
+                try {
+                    while (!closed && durableLsn >= nextLsn - 1) wait();
+                    if (!closed && !flushRequested) wait(flushIntervalMillis); // let a group accumulate
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed) return;
+                flushRequested = false;
+                seg = segment; from = flushedPosition; to = position; lsn = nextLsn - 1;
+                flushedPosition = to;
+            }
+            if (to > from) seg.force(from, to - from);
+            synchronized (this) {
+                if (lsn > durableLsn) durableLsn = lsn;
+                notifyAll();
+            }
+        }
+    }
+
+    @Override public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            notifyAll();
+        }
+        try { flusher.join(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        synchronized (this) {
+            segment.force();
+            durableLsn = nextLsn - 1;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Moves every segment whose records all precede {@code beforeLsn} into {@code archiveDir}. The tail
+     * segment is never touched, so this runs without blocking appends.
+     */
+    int compact(long beforeLsn, Path archiveDir) throws IOException {
+        List<Path> segments = listSegments();
+        long tail = segmentFirstLsn;
+        int moved = 0;
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            long nextFirst = firstLsnOf(segments.get(i + 1));
+            if (nextFirst > beforeLsn || nextFirst > tail) break;
+            Files.createDirectories(archiveDir);
+            Files.move(segments.get(i), archiveDir.resolve(segments.get(i).getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            moved++;
+        }
+        return moved;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> res = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path p : ds) res.add(p);
+        }
+        res.sort(Comparator.comparingLong(TransactionJournal::firstLsnOf));
+        return res;
+    }
+    static long firstLsnOf(Path segment) {
+        String n = segment.getFileName().toString();
+        return Long.parseLong(n.substring(0, n.length() - SUFFIX.length()));
+    }
+    private Path segmentPath(long firstLsn) {
+        return dir.resolve(String.format("%020d", firstLsn) + SUFFIX);
+    }
+    private MappedByteBuffer map(Path p) throws IOException {
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return ch.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, ch.size()));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package inventory;
+
+import java.util.List;
+
+/** One page of a history query, newest first. Pass {@link #nextCursor} back to continue; -1 means done. */
+public final class TransactionPage {
+    final List<Transaction> items;
+    final long nextCursor;
+    TransactionPage(List<Transaction> items, long nextCursor) { this.items = items; this.nextCursor = nextCursor; }
+    public List<Transaction> getItems() { return items; }
+    public long getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,30 @@
+package inventory;
+
+import java.time.LocalDateTime;
+
+/** Filter for paged history queries; null fields match everything. Instances are immutable. */
+public final class TransactionQuery {
+    final String productId;
+    final TransactionType type;
+    final long fromMillis;  // inclusive
+    final long toMillis;    // exclusive
+
+    private TransactionQuery(String productId, TransactionType type, long fromMillis, long toMillis) {
+        this.productId = productId; this.type = type; this.fromMillis = fromMillis; this.toMillis = toMillis;
+    }
+    public static TransactionQuery all() { return new TransactionQuery(null, null, Long.MIN_VALUE, Long.MAX_VALUE); }
+    public TransactionQuery product(String id) { return new TransactionQuery(id, type, fromMillis, toMillis); }
+    public TransactionQuery type(TransactionType t) { return new TransactionQuery(productId, t, fromMillis, toMillis); }
+    public TransactionQuery between(LocalDateTime from, LocalDateTime to) {
+        return new TransactionQuery(productId, type,
+                from == null ? Long.MIN_VALUE : Transaction.toEpochMillis(from),
+                to == null ? Long.MAX_VALUE : Transaction.toEpochMillis(to));
+    }
+    public TransactionQuery since(long fromMillis) { return new TransactionQuery(productId, type, fromMillis, toMillis); }
+
+    boolean matches(Transaction t) {
+        return (productId == null || productId.equals(t.getProductId()))
+                && (type == null || type == t.getTransactionType())
+                && t.getEpochMillis() >= fromMillis && t.getEpochMillis() < toMillis;
+    }
+}
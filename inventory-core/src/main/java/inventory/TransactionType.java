@@ -0,0 +1,3 @@
+package inventory;
+
+public enum TransactionType { IN, OUT }
@@ -0,0 +1,113 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeBusTest {
+    @Test
+    void eachPublishersEventsArriveInOrder() throws InterruptedException {
+        List<InventoryEvent> seen = Collections.synchronizedList(new ArrayList<>());
+        ChangeBus bus = new ChangeBus(64);
+        bus.subscribe(seen::addAll);
+        Thread[] writers = new Thread[4];
+        for (int w = 0; w < writers.length; w++) {
+            String id = "P" + w;
+            writers[w] = new Thread(() -> {
+                for (int q = 1; q <= 5000; q++) {
+                    bus.publish(new InventoryEvent(InventoryEventType.STOCK_MOVED, id, q, 1, q));
+                    bus.flush();
+                }
+            });
+            writers[w].start();
+        }
+        for (Thread t : writers) t.join();
+        bus.close();
+
+        assertEquals(4 * 5000, seen.size());
+        Map<String, Integer> last = new HashMap<>();
+        for (InventoryEvent e : seen) {
+            int previous = last.getOrDefault(e.getProductId(), 0);
+            assertEquals(previous + 1, e.getQuantity(), "events of " + e.getProductId() + " out of order");
+            last.put(e.getProductId(), e.getQuantity());
+        }
+    }
+
+    @Test
+    void aFullRingDefersInsteadOfBlockingThePublisher() throws InterruptedException {
+        CountDownLatch firstBatch = new CountDownLatch(1), release = new CountDownLatch(1);
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        ChangeBus bus = new ChangeBus(4);
+        bus.subscribe(events -> {
+            for (InventoryEvent e : events) seen.add(e.getQuantity());
+            firstBatch.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        bus.publish(event(0));
+        assertTrue(firstBatch.await(5, TimeUnit.SECONDS));
+        // the listener is stuck, so the ring fills after four more; the rest must not wait under the lock
+        CountDownLatch published = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            synchronized (this) {
+                for (int q = 1; q < 20; q++) bus.publish(event(q));
+            }
+            published.countDown();
+            bus.flush();
+        });
+        writer.start();
+        assertTrue(published.await(5, TimeUnit.SECONDS), "publisher blocked on a full ring");
+        release.countDown();
+        writer.join();
+        bus.close();
+
+        List<Integer> expected = new ArrayList<>();
+        for (int q = 0; q < 20; q++) expected.add(q);
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void serviceEventsFollowEachProductsChanges() throws InterruptedException {
+        List<InventoryEvent> seen = Collections.synchronizedList(new ArrayList<>());
+        InventoryService s = InventoryService.empty();
+        s.addProduct(new Product("T1", "Widget", "Tools", 2.5, 0, 5));
+        s.addChangeListener(seen::addAll);
+        Thread[] writers = new Thread[4];
+        for (int w = 0; w < writers.length; w++) {
+            writers[w] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) s.addStock("T1", 1, "Delivery");
+            });
+            writers[w].start();
+        }
+        for (Thread t : writers) t.join();
+        s.close();
+
+        List<Integer> quantities = new ArrayList<>();
+        int lowEntered = 0, lowCleared = 0;
+        for (InventoryEvent e : seen) {
+            if (e.getType() == InventoryEventType.STOCK_MOVED) quantities.add(e.getQuantity());
+            else if (e.getType() == InventoryEventType.LOW_STOCK_CLEARED) lowCleared++;
+            else if (e.getType() == InventoryEventType.LOW_STOCK_ENTERED) lowEntered++;
+        }
+        assertEquals(4000, quantities.size());
+        for (int i = 0; i < quantities.size(); i++) assertEquals(i + 1, quantities.get(i));
+        assertEquals(0, lowEntered);
+        assertEquals(1, lowCleared);
+    }
+
+    private static InventoryEvent event(int quantity) {
+        return new InventoryEvent(InventoryEventType.STOCK_MOVED, "P", quantity, 1, quantity);
+    }
+}
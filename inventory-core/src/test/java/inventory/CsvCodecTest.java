@@ -0,0 +1,121 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvCodecTest {
+    @TempDir Path dir;
+
+    @Test
+    void productsRoundTripWithQuotingAndUnicode() throws IOException {
+        List<Product> products = List.of(
+                new Product("P1", "Plain", "Tools", 2.5, 10, 1),
+                new Product("P2", "Comma, \"quoted\"", "Line\nbreak\r\nand more", 0.07, 0, 0),
+                new Product("P3", "Café ☕ 📦", "", 1234567.89, Integer.MAX_VALUE, 3));
+        Path file = dir.resolve("products.csv");
+        assertEquals(3, CsvCodec.writeProducts(products, file, ProgressListener.NONE));
+        assertProductsEqual(products, CsvCodec.readProducts(file, ProgressListener.NONE));
+    }
+
+    @Test
+    void quotedLineBreaksAcrossChunkBoundariesParseInOrder() throws IOException {
+        List<Product> products = new ArrayList<>();
+        String filler = "x".repeat(200);
+        for (int i = 0; i < 60_000; i++) {
+            String name = "Item " + i + "\n" + filler + (i % 3 == 0 ? ",\"" : "") + "\n";
+            products.add(new Product("P" + i, name, "Cat\n" + (i % 7), i % 1000 / 100.0, i, i % 5));
+        }
+        Path file = dir.resolve("large.csv");
+        CsvCodec.writeProducts(products, file, ProgressListener.NONE);
+        assertTrue(Files.size(file) > 2L * CsvCodec.CHUNK, "file must span several parse chunks");
+        assertProductsEqual(products, CsvCodec.readProducts(file, ProgressListener.NONE));
+    }
+
+    @Test
+    void aFailedWriteLeavesTheOldFileInPlace() throws IOException {
+        Path file = dir.resolve("products.csv");
+        Files.writeString(file, "previous export\n");
+        List<Product> failing = new AbstractList<>() {
+            @Override public Product get(int i) {
+                if (i == 1000) throw new IllegalStateException("source failed");
+                return new Product("P" + i, "Item", "Cat", 1.0, i, 0);
+            }
+            @Override public int size() { return 2000; }
+        };
+        assertThrows(IllegalStateException.class, () -> CsvCodec.writeProducts(failing, file, ProgressListener.NONE));
+        assertEquals("previous export\n", Files.readString(file));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void transactionsRoundTripIntoTheHistoryWithoutTouchingStock() throws IOException {
+        Path file = dir.resolve("transactions.csv");
+        List<Transaction> exported = new ArrayList<>();
+        try (InventoryService s = InventoryService.empty()) {
+            s.addProduct(new Product("X1", "Filler", "Tools", 1.0, 0, 0));
+            for (int i = 0; i < 9; i++) s.addStock("X1", 1, "Delivery"); // numbers past the demo catalog's
+            s.addProduct(new Product("T1", "Widget", "Tools", 2.5, 10, 1));
+            s.addStock("T1", 5, "Delivery, dock \"B\"");
+            s.removeStock("T1", 3, "Sale");
+            assertEquals(13, CsvCodec.writeTransactions(s, file, ProgressListener.NONE));
+            exported.addAll(s.queryTransactions(TransactionQuery.all().product("T1"), Long.MAX_VALUE, 100).getItems());
+
+            // importing into the service the file came from adds nothing
+            assertEquals(0, s.importTransactions(CsvCodec.readTransactions(file, ProgressListener.NONE), ProgressListener.NONE));
+            assertEquals(12, s.getProduct("T1").getQuantity());
+            assertEquals(13, s.getRecentTransactions(100).size());
+        }
+        Path data = dir.resolve("data");
+        for (int run = 0; run < 2; run++) {
+            try (InventoryService s = InventoryService.open(data, false)) {
+                int added = s.importTransactions(CsvCodec.readTransactions(file, ProgressListener.NONE), ProgressListener.NONE);
+                assertEquals(run == 0 ? 13 - 5 : 0, added); // the demo catalog's five initial-stock entries are 1 to 5
+                assertNull(s.getProduct("T1"));
+            }
+        }
+        try (InventoryService s = InventoryService.open(data, false)) {
+            List<Transaction> restored = s.queryTransactions(TransactionQuery.all().product("T1"), Long.MAX_VALUE, 100).getItems();
+            assertEquals(exported.size(), restored.size());
+            for (int i = 0; i < exported.size(); i++) {
+                Transaction e = exported.get(i), r = restored.get(i);
+                assertEquals(e.getSequence(), r.getSequence());
+                assertEquals(e.getTransactionType(), r.getTransactionType());
+                assertEquals(e.getQuantity(), r.getQuantity());
+                assertEquals(e.getReason(), r.getReason());
+                assertEquals(e.getEpochMillis(), r.getEpochMillis());
+            }
+            long highest = exported.get(0).getSequence();
+            s.addStock("P001", 1, "Delivery");
+            List<Transaction> recent = s.getRecentTransactions(1);
+            assertTrue(recent.get(0).getSequence() > highest, "new transactions are numbered after the imported ones");
+        }
+    }
+
+    private static void assertProductsEqual(List<Product> expected, List<Product> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Product e = expected.get(i), a = actual.get(i);
+            assertEquals(e.getProductId(), a.getProductId());
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getCategory(), a.getCategory());
+            assertEquals(e.getPrice(), a.getPrice(), 1e-9);
+            assertEquals(e.getQuantity(), a.getQuantity());
+            assertEquals(e.getMinStockLevel(), a.getMinStockLevel());
+        }
+    }
+}
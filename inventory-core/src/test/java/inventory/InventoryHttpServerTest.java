@@ -0,0 +1,84 @@
+package inventory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InventoryHttpServerTest {
+    private InventoryService service;
+    private InventoryHttpServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        service = InventoryService.empty();
+        service.addProduct(new Product("T1", "Widget", "Tools", 2.5, 10, 1));
+        server = InventoryHttpServer.start(service, new InetSocketAddress("127.0.0.1", 0), 2, null);
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+        service.close();
+    }
+
+    @Test
+    void putWithBadQuantityChangesNothing() throws IOException {
+        assertEquals(400, send("PUT", "/products/T1", "{\"name\":\"Gadget\",\"quantity\":1.9}"));
+        assertEquals(400, send("PUT", "/products/T1", "{\"name\":\"Gadget\",\"quantity\":-1}"));
+        assertEquals(400, send("PUT", "/products/T1", "{\"name\":\"Gadget\",\"minStockLevel\":1e12}"));
+        assertEquals(400, send("PUT", "/products/T1", "{\"name\":\"Gadget\",\"price\":-0.5}"));
+        Product p = service.getProduct("T1");
+        assertEquals("Widget", p.getName());
+        assertEquals(10, p.getQuantity());
+        assertEquals(1, p.getMinStockLevel());
+
+        assertEquals(200, send("PUT", "/products/T1", "{\"name\":\"Gadget\",\"quantity\":12}"));
+        assertEquals("Gadget", p.getName());
+        assertEquals(12, p.getQuantity());
+    }
+
+    @Test
+    void nonIntegerQuantitiesAreRejected() throws IOException {
+        assertEquals(400, send("POST", "/products/T1/stock", "{\"type\":\"IN\",\"quantity\":1.5}"));
+        assertEquals(400, send("POST", "/movements", "[{\"productId\":\"T1\",\"type\":\"IN\",\"quantity\":1e12}]"));
+        assertEquals(400, send("POST", "/products", "{\"productId\":\"T2\",\"quantity\":3.2}"));
+        assertEquals(10, service.getProduct("T1").getQuantity());
+        assertNull(service.getProduct("T2"));
+        assertEquals(200, send("POST", "/products/T1/stock", "{\"type\":\"IN\",\"quantity\":2}"));
+        assertEquals(12, service.getProduct("T1").getQuantity());
+    }
+
+    @Test
+    void negativeValuesAreRejectedOnCreate() throws IOException {
+        assertEquals(400, send("POST", "/products", "{\"productId\":\"T2\",\"quantity\":-3}"));
+        assertEquals(400, send("POST", "/products", "{\"productId\":\"T2\",\"minStockLevel\":-1}"));
+        assertEquals(400, send("POST", "/products", "{\"productId\":\"T2\",\"price\":-2.5}"));
+        assertNull(service.getProduct("T2"));
+        assertEquals(Collections.emptyList(), service.verifyAggregates());
+        assertEquals(201, send("POST", "/products", "{\"productId\":\"T2\",\"price\":2.5,\"quantity\":3}"));
+        assertEquals(3, service.getProduct("T2").getQuantity());
+    }
+
+    private int send(String method, String path, String body) throws IOException {
+        HttpURLConnection c = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getAddress().getPort() + path).openConnection();
+        c.setRequestMethod(method);
+        c.setDoOutput(true);
+        try (OutputStream out = c.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        int status = c.getResponseCode();
+        c.disconnect();
+        return status;
+    }
+}
@@ -0,0 +1,192 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryServiceTest {
+    @TempDir Path dir;
+
+    @Test
+    void aggregatesMatchARecountAfterMixedChanges() {
+        try (InventoryService s = InventoryService.empty()) {
+            s.addProduct(new Product("T1", "Widget", "Tools", 2.5, 10, 5));
+            s.addProduct(new Product("T2", "Gadget", "Tools", 4.0, 3, 5));
+            s.addProduct(new Product("F1", "Apple", "Food", 0.5, 100, 10));
+            s.addStock("T1", "EAST", 7, "Delivery");
+            s.removeStock("F1", 95, "Sale");
+            s.setQuantity("T2", 20);
+            s.updateProduct("T1", "Widget", "Hardware", 3.0, 1);
+            s.applyBatch(List.of(StockMovement.out("T1", "EAST", 2, "Transfer"), StockMovement.in("T1", "WEST", 2, "Transfer")));
+            s.deleteProduct("T2");
+            assertEquals(Collections.emptyList(), s.verifyAggregates());
+            s.setVerifyAggregates(true);
+            assertEquals(17 + 5, s.getSummary().getTotalItems());
+            assertEquals(17 + 5, s.getTotalItems());
+            assertEquals(17 * 3.0 + 5 * 0.5, s.getTotalValue(), 1e-9);
+            assertEquals(List.of("F1"), ids(s.getLowStockProducts()));
+        }
+    }
+
+    @Test
+    void viewTotalsMatchTheViewsProductsWhileWritersRun() throws InterruptedException {
+        try (InventoryService s = InventoryService.empty()) {
+            for (int i = 0; i < 50; i++) s.addProduct(new Product("T" + i, "Item " + i, "Cat" + (i % 5), 1.25, 10, 8));
+            AtomicBoolean stop = new AtomicBoolean();
+            Thread writer = new Thread(() -> {
+                for (int n = 0; !stop.get(); n++) {
+                    String id = "T" + (n % 50);
+                    if (n % 3 == 0) s.removeStock(id, 1, "Sale");
+                    else s.addStock(id, 1, "Delivery");
+                    if (n % 101 == 0) s.updateProduct(id, "Item", "Cat" + (n % 7), 1.25, 8);
+                    if (n % 211 == 0) {
+                        s.deleteProduct("X");
+                        s.addProduct(new Product("X", "Extra", "Cat0", 2.0, n % 20, 5));
+                    }
+                }
+            });
+            writer.start();
+            try {
+                for (int round = 0; round < 200; round++) {
+                    try (InventoryView view = s.openView()) {
+                        InventoryTotals[] overall = new InventoryTotals[1];
+                        Map<String, InventoryTotals> cats = InventoryAggregates.recompute(view.getProducts(), overall);
+                        assertEquals(overall[0], view.getSummary());
+                        assertEquals(cats, view.getCategorySummaries());
+                    }
+                }
+            } finally {
+                stop.set(true);
+                writer.join();
+            }
+        }
+    }
+
+    @Test
+    void setQuantityRejectsNegativeTotals() {
+        try (InventoryService s = InventoryService.empty()) {
+            s.addProduct(new Product("T1", "Widget", "Tools", 2.5, 10, 1));
+            assertThrows(IllegalArgumentException.class, () -> s.setQuantity("T1", -1));
+            assertEquals(10, s.getProduct("T1").getQuantity());
+            assertEquals(Collections.emptyList(), s.verifyAggregates());
+        }
+    }
+
+    @Test
+    void productsWithoutNameOrCategoryCanBeAddedAndRenamed() {
+        try (InventoryService s = InventoryService.empty()) {
+            assertTrue(s.addProduct(new Product("N1", null, null, 1.0, 2, 0)));
+            assertEquals("", s.getProduct("N1").getName());
+            assertEquals(List.of("N1"), ids(s.getProductsByCategory("")));
+            assertTrue(s.updateProduct("N1", "Nail", "Hardware", 1.0, 0));
+            assertEquals(List.of("N1"), ids(s.searchProducts("nai", 10)));
+            assertEquals(List.of("N1"), ids(s.getProductsByCategory("Hardware")));
+            assertTrue(s.updateProduct("N1", null, null, 1.0, 0));
+            assertEquals(List.of("N1"), ids(s.getProductsByCategory("")));
+            assertEquals(Collections.emptyList(), s.searchProducts("nai", 10));
+            assertEquals(Collections.emptyList(), s.verifyAggregates());
+        }
+    }
+
+    @Test
+    void failedBatchChangesNothing() {
+        try (InventoryService s = InventoryService.empty()) {
+            s.addProduct(new Product("T1", "Widget", "Tools", 2.5, 10, 1));
+            s.addProduct(new Product("T2", "Gadget", "Tools", 4.0, 3, 1));
+            int txns = s.getRecentTransactions(1000).size();
+            BatchResult r = s.applyBatch(List.of(
+                    StockMovement.in("T1", 5, "Delivery"),
+                    StockMovement.out("T2", 2, "Sale"),
+                    StockMovement.out("T2", 2, "Sale"),
+                    StockMovement.in("MISSING", 1, "Delivery")));
+            assertFalse(r.isApplied());
+            assertEquals(List.of(2, 3), new ArrayList<>(r.getFailures().keySet()));
+            assertEquals(StockResult.INSUFFICIENT_STOCK, r.getFailures().get(2));
+            assertEquals(StockResult.PRODUCT_NOT_FOUND, r.getFailures().get(3));
+            assertEquals(10, s.getProduct("T1").getQuantity());
+            assertEquals(3, s.getProduct("T2").getQuantity());
+            assertEquals(txns, s.getRecentTransactions(1000).size());
+            assertEquals(Collections.emptyList(), s.verifyAggregates());
+
+            BatchResult ok = s.applyBatch(List.of(StockMovement.in("T1", 5, "Delivery"), StockMovement.out("T2", 3, "Sale")));
+            assertTrue(ok.isApplied());
+            assertEquals(15, s.getProduct("T1").getQuantity());
+            assertEquals(0, s.getProduct("T2").getQuantity());
+            assertEquals(txns + 2, s.getRecentTransactions(1000).size());
+        }
+    }
+
+    @Test
+    void emptyAndOversizedBatchesAreNotJournaled() throws IOException {
+        try (InventoryService s = InventoryService.open(dir, false)) {
+            s.addProduct(new Product("T1", "Widget", "Tools", 2.5, 10, 1));
+            int txns = s.getRecentTransactions(1000).size();
+            BatchResult empty = s.applyBatch(Collections.emptyList());
+            assertTrue(empty.isApplied());
+            assertEquals(0, empty.size());
+
+            String reason = "x".repeat(1 << 20);
+            List<StockMovement> huge = new ArrayList<>();
+            for (int i = 0; i < 32; i++) huge.add(StockMovement.in("T1", 1, reason));
+            BatchResult r = s.applyBatch(huge);
+            assertFalse(r.isApplied());
+            assertEquals(1, r.getFailures().size());
+            assertEquals(StockResult.BATCH_TOO_LARGE, r.getFailures().values().iterator().next());
+            assertEquals(10, s.getProduct("T1").getQuantity());
+            assertEquals(txns, s.getRecentTransactions(1000).size());
+        }
+        try (InventoryService s = InventoryService.open(dir, false)) {
+            assertEquals(10, s.getProduct("T1").getQuantity());
+        }
+    }
+
+    @Test
+    void stateAndHistoryRecoverFromSnapshotAndJournal() throws IOException {
+        List<Transaction> before;
+        try (InventoryService s = InventoryService.open(dir, false)) {
+            s.addProduct(new Product("T1", "Widget", "Tools", 2.5, 10, 1));
+            s.addProduct(new Product("F1", "Apple", "Food", 0.5, 100, 10));
+            s.addStock("T1", "EAST", 4, "Delivery");
+            s.snapshot();
+            s.removeStock("F1", 30, "Sale");
+            s.applyBatch(List.of(StockMovement.out("T1", "EAST", 1, "Transfer"), StockMovement.in("T1", "WEST", 1, "Transfer")));
+            s.updateProduct("F1", "Apple", "Fruit", 0.6, 10);
+            before = s.getRecentTransactions(1000);
+        }
+        try (InventoryService s = InventoryService.open(dir, false)) {
+            assertEquals(14, s.getProduct("T1").getQuantity());
+            assertEquals(70, s.getProduct("F1").getQuantity());
+            assertEquals("Fruit", s.getProduct("F1").getCategory());
+            assertEquals(3, s.getStockLevels("T1").size());
+            assertEquals(Collections.emptyList(), s.verifyAggregates());
+            List<Transaction> after = s.getRecentTransactions(1000);
+            assertEquals(before.size(), after.size());
+            for (int i = 0; i < before.size(); i++) {
+                Transaction b = before.get(i), a = after.get(i);
+                assertEquals(b.getSequence(), a.getSequence());
+                assertEquals(b.getProductId(), a.getProductId());
+                assertEquals(b.getTransactionType(), a.getTransactionType());
+                assertEquals(b.getQuantity(), a.getQuantity());
+                assertEquals(b.getReason(), a.getReason());
+            }
+        }
+    }
+
+    private static List<String> ids(List<Product> products) {
+        List<String> res = new ArrayList<>();
+        for (Product p : products) res.add(p.getProductId());
+        return res;
+    }
+}
@@ -0,0 +1,106 @@
+package inventory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LowStockAlertsTest {
+    private final InventoryService service = InventoryService.empty();
+    private final List<LowStockAlert> notified = Collections.synchronizedList(new ArrayList<>());
+    private final BlockingQueue<InventoryEvent> delivered = new LinkedBlockingQueue<>();
+
+    @AfterEach
+    void close() {
+        service.close();
+    }
+
+    @Test
+    void goingLowRaisesAnAlertWithAReorderSuggestion() throws InterruptedException {
+        LowStockAlerts alerts = subscribe(TimeUnit.HOURS.toMillis(1));
+        service.addProduct(new Product("T1", "Widget", "Tools", 2.5, 10, 5));
+        service.removeStock("T1", 6, "Sale");
+        await(InventoryEventType.LOW_STOCK_ENTERED);
+
+        assertEquals(1, notified.size());
+        LowStockAlert a = notified.get(0);
+        assertEquals("T1", a.getProductId());
+        assertEquals(4, a.getQuantity());
+        assertEquals(5, a.getMinStockLevel());
+        assertEquals(6.0 / LowStockAlerts.VELOCITY_DAYS, a.getDailyOutRate(), 1e-6);
+        assertEquals(5 + 12 - 4, a.getSuggestedReorder()); // min plus 14 days of demand, less what is on hand
+        assertEquals(a, alerts.getActiveAlert("T1"));
+    }
+
+    @Test
+    void recoveringClearsTheAlertAndTheNextDropIsDebounced() throws InterruptedException {
+        LowStockAlerts alerts = subscribe(TimeUnit.HOURS.toMillis(1));
+        service.addProduct(new Product("T1", "Widget", "Tools", 2.5, 10, 5));
+        service.removeStock("T1", 6, "Sale");
+        await(InventoryEventType.LOW_STOCK_ENTERED);
+        assertEquals(1, notified.size());
+        service.addStock("T1", 10, "Delivery");
+        await(InventoryEventType.LOW_STOCK_CLEARED);
+        assertNull(alerts.getActiveAlert("T1"));
+
+        service.removeStock("T1", 10, "Sale");
+        await(InventoryEventType.LOW_STOCK_ENTERED);
+        assertEquals(1, notified.size());
+        assertNotNull(alerts.getActiveAlert("T1"), "debounced alerts are still active");
+        assertEquals(4, alerts.getActiveAlert("T1").getQuantity());
+    }
+
+    @Test
+    void withoutDebounceEveryDropNotifies() throws InterruptedException {
+        LowStockAlerts alerts = subscribe(0);
+        service.addProduct(new Product("T1", "Widget", "Tools", 2.5, 10, 5));
+        for (int i = 0; i < 3; i++) {
+            service.removeStock("T1", 6, "Sale");
+            await(InventoryEventType.LOW_STOCK_ENTERED); // the engine checks the live product, so let it see each drop
+            service.addStock("T1", 6, "Delivery");
+            await(InventoryEventType.LOW_STOCK_CLEARED);
+        }
+        assertEquals(3, notified.size());
+        assertTrue(alerts.getActiveAlerts().isEmpty());
+    }
+
+    @Test
+    void deletingAProductDropsItsAlert() throws InterruptedException {
+        LowStockAlerts alerts = subscribe(0);
+        service.addProduct(new Product("T1", "Widget", "Tools", 2.5, 3, 5));
+        service.removeStock("T1", 1, "Sale");
+        await(InventoryEventType.LOW_STOCK_ENTERED);
+        assertNotNull(alerts.getActiveAlert("T1"));
+        service.deleteProduct("T1");
+        await(InventoryEventType.PRODUCT_DELETED);
+        assertNull(alerts.getActiveAlert("T1"));
+    }
+
+    private LowStockAlerts subscribe(long debounceMillis) {
+        LowStockAlerts alerts = new LowStockAlerts(service, debounceMillis, 14);
+        alerts.addAlertListener(notified::add);
+        service.addChangeListener(alerts);
+        // registered after the engine, so an event seen here has been handled by it too
+        service.addChangeListener(delivered::addAll);
+        return alerts;
+    }
+
+    /** Waits until the next event of this type has been handled by the engine as well. */
+    private void await(InventoryEventType type) throws InterruptedException {
+        for (;;) {
+            InventoryEvent e = delivered.poll(5, TimeUnit.SECONDS);
+            if (e == null) throw new AssertionError(type + " not delivered");
+            if (e.getType() == type) return;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockTimelineTest {
+    @TempDir Path dir;
+
+    @Test
+    void archivedSegmentsAnswerLikeAFullTimeline() throws IOException {
+        try (TimelineArchive archive = TimelineArchive.open(dir.resolve("timelines.bin"), 0)) {
+            StockTimeline full = new StockTimeline(null), segmented = new StockTimeline(archive);
+            for (int i = 0; i < 1000; i++) {
+                long millis = 1000 + 10L * i - (i % 7 == 3 ? 25 : 0); // an occasional clock step back
+                int balance = i % 97 == 50 ? StockTimeline.ABSENT : i;
+                full.append(millis, balance);
+                segmented.append(millis, balance);
+            }
+            StockTimeline.Image image = segmented.image();
+            assertTrue(image.pairs.length <= 2 * StockTimeline.SEGMENT);
+            assertTrue(image.checkpoints.length >= 2 * (1000 / StockTimeline.SEGMENT - 1));
+            StockTimeline restored = StockTimeline.of(image, archive);
+
+            long[] times = new long[2100];
+            for (int i = 0; i < times.length; i++) times[i] = 990 + 5L * i;
+            for (long t : times) {
+                assertEquals(full.at(t), segmented.at(t), "at " + t);
+                assertEquals(full.at(t), restored.at(t), "restored at " + t);
+            }
+            assertEquals(StockTimeline.ABSENT, segmented.at(999));
+            assertArrayEquals(full.at(times), segmented.at(times));
+            assertArrayEquals(full.at(times), restored.at(times));
+        }
+    }
+
+    @Test
+    void quantityAtAndDailyClosingSurviveSnapshotAndRestart() throws IOException, InterruptedException {
+        List<LocalDateTime> moments = new ArrayList<>();
+        List<Integer> quantities = new ArrayList<>();
+        try (InventoryService s = InventoryService.open(dir, false)) {
+            s.addProduct(new Product("T1", "Widget", "Tools", 2.5, 0, 1));
+            for (int i = 1; i <= 3 * StockTimeline.SEGMENT; i++) {
+                if (i % 10 == 0) s.removeStock("T1", 3, "Sale");
+                else s.addStock("T1", 1, "Delivery");
+                Thread.sleep(2);
+                moments.add(now());
+                quantities.add(s.getProduct("T1").getQuantity());
+                Thread.sleep(2); // the next change must land in a later millisecond than this moment
+                if (i == 2 * StockTimeline.SEGMENT) s.snapshot();
+            }
+        }
+        for (int restart = 0; restart < 2; restart++) {
+            try (InventoryService s = InventoryService.open(dir, false)) {
+                for (int i = 0; i < moments.size(); i++) {
+                    assertEquals(quantities.get(i), s.getQuantityAt("T1", moments.get(i)), "at change " + (i + 1));
+                }
+                assertNull(s.getQuantityAt("T1", moments.get(0).minusDays(1)));
+                LocalDate today = LocalDate.now();
+                SortedMap<LocalDate, Integer> closing = s.getDailyClosingStock("T1", today.minusDays(2), today);
+                assertEquals(1, closing.size());
+                assertEquals(quantities.get(quantities.size() - 1), closing.get(today));
+                s.snapshot();
+            }
+        }
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(System.currentTimeMillis()), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,156 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionHistoryTest {
+    @TempDir Path dir;
+
+    @Test
+    void queriesSpanRingAndArchiveWithoutDuplicates() throws IOException {
+        Path file = dir.resolve("history.bin");
+        try (TransactionHistory h = new TransactionHistory(4, TransactionArchive.open(file))) {
+            for (int i = 0; i < 10; i++) h.add(i, "P" + (i % 3), TransactionType.IN, i + 1, "r", 1000 + i);
+            assertEquals(range(9, 0), sequences(h.query(TransactionQuery.all(), Long.MAX_VALUE, 100).items));
+            assertEquals(List.of(9L, 6L, 3L, 0L), sequences(h.query(TransactionQuery.all().product("P0"), Long.MAX_VALUE, 100).items));
+        }
+        try (TransactionHistory h = new TransactionHistory(4, TransactionArchive.open(file))) {
+            assertEquals(List.of(6L, 7L, 8L, 9L), sequences(h.recent(10)));
+            assertEquals(range(9, 0), sequences(h.query(TransactionQuery.all(), Long.MAX_VALUE, 100).items));
+            for (int i = 10; i < 13; i++) h.add(i, "P0", TransactionType.OUT, 1, "r", 1000 + i);
+            assertEquals(range(12, 0), sequences(h.query(TransactionQuery.all(), Long.MAX_VALUE, 100).items));
+            TransactionPage page = h.query(TransactionQuery.all(), Long.MAX_VALUE, 5);
+            assertEquals(range(12, 8), sequences(page.items));
+            assertEquals(range(7, 3), sequences(h.query(TransactionQuery.all(), page.nextCursor, 5).items));
+        }
+    }
+
+    @Test
+    void writersLappingTheArchiverDoNotDeadlock() throws IOException {
+        AtomicLong seq = new AtomicLong();
+        try (TransactionHistory h = new TransactionHistory(4, TransactionArchive.open(dir.resolve("history.bin")))) {
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                Thread[] writers = new Thread[8];
+                for (int w = 0; w < writers.length; w++) {
+                    writers[w] = new Thread(() -> {
+                        for (int i = 0; i < 5000; i++) h.add(seq.getAndIncrement(), "P", TransactionType.IN, 1, "r", 1000 + i);
+                    });
+                    writers[w].start();
+                }
+                for (Thread t : writers) t.join();
+            });
+            Set<Long> seen = new HashSet<>(sequences(h.query(TransactionQuery.all(), Long.MAX_VALUE, 100_000).items));
+            assertEquals(40_000, seen.size());
+        }
+    }
+
+    @Test
+    void memoryOnlyHistoryKeepsTheNewestEntries() {
+        try (TransactionHistory h = new TransactionHistory(4)) {
+            for (int i = 0; i < 10; i++) h.add(i, "P", TransactionType.IN, 1, "r", 1000 + i);
+            assertEquals(List.of(6L, 7L, 8L, 9L), sequences(h.recent(100)));
+            assertEquals(List.of(8L, 9L), sequences(h.recent(2)));
+            assertTrue(h.recent(-1).isEmpty());
+            assertEquals(range(9, 6), sequences(h.query(TransactionQuery.all(), Long.MAX_VALUE, 100).items));
+            assertEquals(0, h.archivedSequences(0).length);
+        }
+    }
+
+    @Test
+    void historySurvivesSnapshotAndRestart() throws IOException {
+        List<Long> recent, widget;
+        try (InventoryService s = InventoryService.open(dir, false)) {
+            s.addProduct(new Product("T1", "Widget", "Tools", 2.5, 10, 1));
+            s.addStock("T1", 5, "Delivery");
+            s.removeStock("T1", 3, "Sale");
+            s.snapshot();
+            s.addStock("T1", 7, "Delivery");
+            recent = sequences(s.getRecentTransactions(100));
+            widget = sequences(s.queryTransactions(TransactionQuery.all().product("T1"), Long.MAX_VALUE, 100).items);
+        }
+        assertEquals(4, widget.size());
+        for (int restart = 0; restart < 2; restart++) {
+            try (InventoryService s = InventoryService.open(dir, false)) {
+                assertEquals(recent, sequences(s.getRecentTransactions(100)));
+                assertEquals(widget, sequences(s.queryTransactions(TransactionQuery.all().product("T1"), Long.MAX_VALUE, 100).items));
+                assertEquals(19, s.getProduct("T1").getQuantity());
+            }
+        }
+    }
+
+    @Test
+    void historySurvivesRestartWithoutSnapshot() throws IOException {
+        List<Long> recent;
+        try (InventoryService s = InventoryService.open(dir, false)) {
+            s.addProduct(new Product("T1", "Widget", "Tools", 2.5, 10, 1));
+            s.addStock("T1", 5, "Delivery");
+            recent = sequences(s.getRecentTransactions(100));
+        }
+        try (InventoryService s = InventoryService.open(dir, false)) {
+            assertEquals(recent, sequences(s.getRecentTransactions(100)));
+            s.removeStock("T1", 1, "Sale");
+            s.snapshot();
+        }
+        try (InventoryService s = InventoryService.open(dir, false)) {
+            List<Long> expected = new ArrayList<>(recent);
+            expected.add(expected.get(expected.size() - 1) + 1);
+            assertEquals(expected, sequences(s.getRecentTransactions(100)));
+        }
+    }
+
+    @Test
+    void snapshotArchivesHistoryBeforeTheJournalIsCompacted() throws IOException {
+        Path live = dir.resolve("live"), crashed = dir.resolve("crashed");
+        List<Long> recent;
+        try (InventoryService s = InventoryService.open(live, false)) {
+            s.addProduct(new Product("T1", "Widget", "Tools", 2.5, 10, 1));
+            for (int i = 0; i < 50; i++) s.addStock("T1", 1, "Delivery");
+            s.snapshot();
+            for (int i = 0; i < 5; i++) s.removeStock("T1", 1, "Sale");
+            recent = sequences(s.getRecentTransactions(1000));
+            copy(live, crashed); // what a crash would leave: replay starts at the snapshot, the ring was never closed
+        }
+        try (InventoryService s = InventoryService.open(crashed, false)) {
+            assertEquals(recent, sequences(s.getRecentTransactions(1000)));
+            assertEquals(56, s.queryTransactions(TransactionQuery.all().product("T1"), Long.MAX_VALUE, 1000).items.size());
+            assertEquals(55, s.getProduct("T1").getQuantity());
+        }
+    }
+
+    private static void copy(Path from, Path to) throws IOException {
+        try (Stream<Path> files = Files.walk(from)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                Path target = to.resolve(from.relativize(p).toString());
+                if (Files.isDirectory(p)) Files.createDirectories(target);
+                else Files.copy(p, target);
+            }
+        }
+    }
+
+    private static List<Long> sequences(List<Transaction> txns) {
+        List<Long> res = new ArrayList<>();
+        for (Transaction t : txns) res.add(t.getSequence());
+        return res;
+    }
+
+    private static List<Long> range(long from, long downTo) {
+        List<Long> res = new ArrayList<>();
+        for (long s = from; s >= downTo; s--) res.add(s);
+        return res;
+    }
+}